@@ -1,7 +1,9 @@
 package org.cinos.core.auth.config.filter;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import org.cinos.core.auth.service.JwtService;
+import org.cinos.core.auth.service.PrincipalCache;
 import org.cinos.core.users.service.impl.UserService;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 import jakarta.servlet.FilterChain;
@@ -9,6 +11,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +28,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final PrincipalCache principalCache;
+
+    // Modo sin estado: el principal se arma desde los claims verificados, sin consultar la base
+    @Value("${security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -35,12 +43,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         String token = authorizationHeader.split(" ")[1];
         try {
-            String username = jwtService.extractUsername(token);
+            Claims claims = jwtService.extractClaims(token);
+            String username = claims.getSubject();
             UserDetails userDetails = null;
-            try {
-                userDetails = userService.getByUsernameEntity(username);
-            } catch (UserNotFoundException e) {
-                throw new RuntimeException(e);
+            if (statelessPrincipal && jwtService.hasPrincipalClaims(claims)
+                    && !principalCache.changedSince(username, claims.getIssuedAt())) {
+                userDetails = jwtService.toPrincipal(claims);
+            } else {
+                try {
+                    userDetails = principalCache.get(username, claims.getIssuedAt(), () -> userService.getByUsernameEntity(username));
+                } catch (UserNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
             }
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -0,0 +1,27 @@
+package org.cinos.core.auth.model;
+
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Datos mínimos del usuario autenticado, comunes al principal cargado de base (UserEntity)
+ * y al construido desde los claims del token (JwtUserPrincipal)
+ */
+public interface AuthenticatedUser {
+
+    Long getId();
+
+    String getUsername();
+
+    /**
+     * Usuario autenticado del request actual
+     */
+    static AuthenticatedUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new AuthenticationCredentialsNotFoundException("No hay un usuario autenticado");
+        }
+        return user;
+    }
+}
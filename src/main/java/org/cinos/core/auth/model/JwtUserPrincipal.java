@@ -0,0 +1,54 @@
+package org.cinos.core.auth.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.users.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal liviano e inmutable: se construye a partir de los claims verificados del access token
+ * o como copia del usuario cargado de base, que es lo que guarda PrincipalCache
+ */
+@Getter
+@Builder
+public class JwtUserPrincipal implements UserDetails, AuthenticatedUser {
+
+    private final Long id;
+    private final String username;
+    private final String name;
+    private final String lastname;
+    private final String email;
+    private final List<Role> roles;
+
+    /**
+     * Copia de los datos de autenticación del usuario, sin referencias a la entidad
+     */
+    public static JwtUserPrincipal of(UserEntity user) {
+        return JwtUserPrincipal.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .name(user.getName())
+                .lastname(user.getLastname())
+                .email(user.getEmail())
+                .roles(user.getRoles() != null ? List.copyOf(user.getRoles()) : List.of())
+                .build();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
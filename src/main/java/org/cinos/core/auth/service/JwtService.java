@@ -1,9 +1,12 @@
 package org.cinos.core.auth.service;
 
+import org.cinos.core.auth.model.JwtUserPrincipal;
 import org.cinos.core.users.dto.UserDTO;
+import org.cinos.core.users.model.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +14,13 @@ import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
 
 @Service
 public class JwtService {
 
+    private static final String USER_ID_CLAIM = "uid";
+
     @Value("${security.jwt.secret-key}")
     private String SECRET_KEY;
     @Value("${security.jwt.expiration-time-minutes}")
@@ -22,9 +28,21 @@ public class JwtService {
     @Value("${security.jwt.refresh-expiration-time-days}")
     private Integer REFRESH_EXPIRATION_TIME_DAYS;
 
+    // Clave y parser inmutables: se construyen una sola vez
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        byte[] passwordDecode = Decoders.BASE64.decode(SECRET_KEY);
+        signingKey = Keys.hmacShaKeyFor(passwordDecode);
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String generateToken(UserDTO userDTO) {
         return Jwts.builder()
                 .subject(userDTO.username())
+                .claim(USER_ID_CLAIM, userDTO.id())
                 .claim("name", userDTO.name())
                 .claim("lastname", userDTO.lastname())
                 .claim("email", userDTO.email())
@@ -51,16 +69,45 @@ public class JwtService {
     }
 
     private SecretKey generateKey(){
-        byte[] passwordDecode = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(passwordDecode);
+        return signingKey;
     }
 
     public String extractUsername(final String token) {
         return extractPayload(token).getSubject();
     }
 
+    /**
+     * Verifica la firma y devuelve los claims del token
+     */
+    public Claims extractClaims(final String token) {
+        return extractPayload(token);
+    }
+
     private Claims extractPayload(final String token) {
-        return Jwts.parser().verifyWith(generateKey()).build().parseSignedClaims(token).getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Indica si el token trae los claims necesarios para armar el principal sin ir a base
+     * (los tokens emitidos antes del claim de id y los refresh tokens no los traen)
+     */
+    public boolean hasPrincipalClaims(final Claims claims) {
+        return claims.get(USER_ID_CLAIM) != null && claims.get("roles") != null;
+    }
+
+    /**
+     * Construye el principal a partir de los claims ya verificados
+     */
+    public JwtUserPrincipal toPrincipal(final Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        return JwtUserPrincipal.builder()
+                .id(claims.get(USER_ID_CLAIM, Number.class).longValue())
+                .username(claims.getSubject())
+                .name(claims.get("name", String.class))
+                .lastname(claims.get("lastname", String.class))
+                .email(claims.get("email", String.class))
+                .roles(roles.stream().map(role -> Role.valueOf(role.toString())).toList())
+                .build();
     }
 
     public boolean isValidRefreshToken(String token) {
@@ -0,0 +1,96 @@
+package org.cinos.core.auth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.cinos.core.auth.model.JwtUserPrincipal;
+import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Caché acotada con TTL del usuario autenticado, por subject + fecha de emisión del token.
+ * Evita consultar USERS y user_roles en cada request; se invalida al confirmarse un cambio del usuario o sus roles.
+ * Guarda una copia inmutable (JwtUserPrincipal), nunca la entidad: las escrituras cargan una entidad nueva.
+ * También recuerda cuándo cambió cada usuario, para que el modo sin estado no confíe en claims
+ * de tokens emitidos antes del cambio (se guarda lo que dura un access token).
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<PrincipalKey, JwtUserPrincipal> cache;
+    private final Cache<String, Long> changedAt;
+
+    public PrincipalCache(@Value("${security.jwt.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.jwt.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${security.jwt.expiration-time-minutes}") long tokenLifetimeMinutes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.changedAt = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(tokenLifetimeMinutes))
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface PrincipalLoader {
+        UserEntity load() throws UserNotFoundException;
+    }
+
+    public JwtUserPrincipal get(String username, Date issuedAt, PrincipalLoader loader) throws UserNotFoundException {
+        PrincipalKey key = new PrincipalKey(username, issuedAt != null ? issuedAt.getTime() : 0L);
+        JwtUserPrincipal cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        JwtUserPrincipal loaded = JwtUserPrincipal.of(loader.load());
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Descarta todas las entradas del usuario (cualquier token emitido). Dentro de una transacción
+     * se aplica al confirmarla, para que ninguna lectura concurrente vuelva a cachear el estado anterior
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateNow(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateNow(username);
+            }
+        });
+    }
+
+    private void invalidateNow(String username) {
+        changedAt.put(username, System.currentTimeMillis());
+        cache.asMap().keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    /**
+     * Indica si el usuario cambió (roles, datos, baja) después de emitido el token
+     */
+    public boolean changedSince(String username, Date issuedAt) {
+        Long changed = changedAt.getIfPresent(username);
+        return changed != null && (issuedAt == null || issuedAt.getTime() <= changed);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record PrincipalKey(String username, long issuedAt) {}
+}
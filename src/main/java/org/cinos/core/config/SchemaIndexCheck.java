@@ -0,0 +1,86 @@
+package org.cinos.core.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verifica al arrancar que existan los índices creados por las migraciones (db/migration).
+ * Con schema.index-check.fail-on-missing=true la aplicación no arranca si falta alguno.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexCheck {
+
+    static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+            "follows", List.of("uk_follows_from_to", "idx_follows_to_from"),
+            "messages", List.of("idx_messages_conversation_timestamp", "idx_messages_conversation_id", "idx_messages_recipient_seen"),
+            "conversations_participants", List.of("idx_conversations_participants_account"),
+            "conversation_inbox", List.of("uk_conversation_inbox_conversation_account", "idx_conversation_inbox_account_updated"),
+            "push_tokens", List.of("idx_push_tokens_user_active", "idx_push_tokens_last_used"),
+            "notification_outbox", List.of("idx_notification_outbox_status_next"),
+            "posts", List.of("idx_posts_active_publication_date", "idx_posts_active_base_score", "idx_posts_publication_status_date")
+    );
+
+    private final DataSource dataSource;
+
+    @Value("${schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${schema.index-check.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : REQUIRED_INDEXES.entrySet()) {
+                Set<String> existing = indexNames(metaData, connection.getCatalog(), table.getKey());
+                table.getValue().stream()
+                        .filter(index -> !existing.contains(index.toLowerCase()))
+                        .forEach(index -> missing.add(table.getKey() + "." + index));
+            }
+        }
+
+        if (missing.isEmpty()) {
+            log.info("Índices del esquema verificados");
+            return;
+        }
+        if (failOnMissing) {
+            throw new IllegalStateException("Faltan índices en el esquema: " + missing);
+        }
+        log.warn("Faltan índices en el esquema, ejecutar las migraciones de db/migration: {}", missing);
+    }
+
+    private Set<String> indexNames(DatabaseMetaData metaData, String catalog, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet indexes = metaData.getIndexInfo(catalog, null, table, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase());
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -6,6 +6,8 @@ import org.cinos.core.users.dto.UserDTO;
 import org.cinos.core.users.utils.exceptions.UserFollowingException;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -43,4 +45,14 @@ public class FollowController {
         return ResponseEntity.ok(followService.getFollowings(id));
     }
 
+    @GetMapping("/followers/{id}/page")
+    public ResponseEntity<Page<UserDTO>> getFollowersPage(@PathVariable final Long id, @RequestParam final Integer page, @RequestParam final Integer size) throws UserNotFoundException {
+        return ResponseEntity.ok(followService.getFollowers(id, PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/followings/{id}/page")
+    public ResponseEntity<Page<UserDTO>> getFollowingsPage(@PathVariable final Long id, @RequestParam final Integer page, @RequestParam final Integer size) throws UserNotFoundException {
+        return ResponseEntity.ok(followService.getFollowings(id, PageRequest.of(page, size)));
+    }
+
 }
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "FOLLOWS")
+@Table(name = "FOLLOWS",
+        uniqueConstraints = @UniqueConstraint(name = "uk_follows_from_to", columnNames = {"from_user_id", "to_user_id"}),
+        indexes = @Index(name = "idx_follows_to_from", columnList = "to_user_id, from_user_id"))
 public class FollowEntity implements Serializable {
 
     @Id
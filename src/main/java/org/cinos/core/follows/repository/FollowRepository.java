@@ -1,7 +1,13 @@
 package org.cinos.core.follows.repository;
 
 import org.cinos.core.follows.entity.FollowEntity;
+import org.cinos.core.users.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +18,42 @@ public interface FollowRepository extends JpaRepository<FollowEntity, Long> {
     List<FollowEntity> findByFromUserId(Long fromUserId);
     List<FollowEntity> findByToUserId(Long toUserId);
 
+    @Modifying
+    @Query("DELETE FROM FollowEntity f WHERE f.fromUserId = :fromUserId AND f.toUserId = :toUserId")
+    int deleteFollow(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Query("SELECT f.toUserId, COUNT(f) FROM FollowEntity f WHERE f.toUserId IN :userIds GROUP BY f.toUserId")
+    List<Object[]> countFollowersByUserIds(@Param("userIds") List<Long> userIds);
+
+    @Query("SELECT f.fromUserId, COUNT(f) FROM FollowEntity f WHERE f.fromUserId IN :userIds GROUP BY f.fromUserId")
+    List<Object[]> countFollowingsByUserIds(@Param("userIds") List<Long> userIds);
+
+    /**
+     * IDs de los usuarios que sigue el usuario, resueltos sobre el índice (from_user_id, to_user_id)
+     */
+    @Query("SELECT f.toUserId FROM FollowEntity f WHERE f.fromUserId = :userId")
+    List<Long> findFollowingIds(@Param("userId") Long userId);
+
+    /**
+     * IDs de los seguidores del usuario, resueltos sobre el índice (to_user_id, from_user_id)
+     */
+    @Query("SELECT f.fromUserId FROM FollowEntity f WHERE f.toUserId = :userId")
+    List<Long> findFollowerIds(@Param("userId") Long userId);
+
+    /**
+     * Usuarios seguidos en una sola consulta, del seguimiento más reciente al más antiguo
+     */
+    @Query(value = "SELECT u FROM UserEntity u, FollowEntity f WHERE f.fromUserId = :userId AND u.id = f.toUserId " +
+            "ORDER BY f.createdAt DESC, f.id DESC",
+            countQuery = "SELECT COUNT(f) FROM FollowEntity f WHERE f.fromUserId = :userId")
+    Page<UserEntity> findFollowingUsers(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Seguidores en una sola consulta, del seguimiento más reciente al más antiguo
+     */
+    @Query(value = "SELECT u FROM UserEntity u, FollowEntity f WHERE f.toUserId = :userId AND u.id = f.fromUserId " +
+            "ORDER BY f.createdAt DESC, f.id DESC",
+            countQuery = "SELECT COUNT(f) FROM FollowEntity f WHERE f.toUserId = :userId")
+    Page<UserEntity> findFollowerUsers(@Param("userId") Long userId, Pageable pageable);
+
 }
@@ -0,0 +1,82 @@
+package org.cinos.core.follows.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.cinos.core.follows.repository.FollowRepository;
+import org.cinos.core.follows.utils.LongIdSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Grafo de seguimientos en memoria: los IDs seguidos y seguidores de cada usuario se cargan
+ * con una sola consulta y se guardan como LongIdSet en una caché acotada con TTL.
+ * Se invalida en follow/unfollow; el TTL acota lo que puede quedar desactualizado entre instancias.
+ */
+@Component
+public class FollowGraph {
+
+    private final FollowRepository followRepository;
+    private final Cache<Long, LongIdSet> followings;
+    private final Cache<Long, LongIdSet> followers;
+
+    public FollowGraph(FollowRepository followRepository,
+                       @Value("${follows.graph-cache.max-size:20000}") long maxSize,
+                       @Value("${follows.graph-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.followRepository = followRepository;
+        this.followings = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.followers = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public LongIdSet getFollowingIds(Long userId) {
+        return load(followings, userId, () -> LongIdSet.of(followRepository.findFollowingIds(userId)));
+    }
+
+    public LongIdSet getFollowerIds(Long userId) {
+        return load(followers, userId, () -> LongIdSet.of(followRepository.findFollowerIds(userId)));
+    }
+
+    /**
+     * Descarta las entradas afectadas por un follow/unfollow de fromUserId hacia toUserId
+     */
+    public void invalidate(Long fromUserId, Long toUserId) {
+        followings.invalidate(fromUserId);
+        followers.invalidate(toUserId);
+    }
+
+    /**
+     * Invalida al confirmar la transacción en curso, para que ninguna lectura concurrente
+     * vuelva a cachear el estado anterior al cambio
+     */
+    public void invalidateAfterCommit(Long fromUserId, Long toUserId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(fromUserId, toUserId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(fromUserId, toUserId);
+            }
+        });
+    }
+
+    private LongIdSet load(Cache<Long, LongIdSet> cache, Long userId, Callable<LongIdSet> loader) {
+        try {
+            return cache.get(userId, loader);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo cargar el grafo de seguimientos del usuario " + userId, e.getCause());
+        }
+    }
+}
@@ -5,13 +5,18 @@ import org.cinos.core.follows.dto.FollowDTO;
 import org.cinos.core.follows.entity.FollowEntity;
 import org.cinos.core.follows.repository.FollowRepository;
 import org.cinos.core.users.dto.UserDTO;
+import org.cinos.core.users.dto.mapper.UserMapper;
 import org.cinos.core.users.service.IUserService;
 import org.cinos.core.users.service.impl.AccountService;
 import org.cinos.core.users.utils.exceptions.UserFollowingException;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,51 +29,67 @@ public class FollowService implements IFollowService {
     private final FollowRepository followRepository;
     private final IUserService userService;
     private final AccountService accountService;
+    private final FollowGraph followGraph;
+    private final UserMapper userMapper;
 
     @Override
+    @Transactional(rollbackFor = {UserFollowingException.class, UserNotFoundException.class})
     public FollowDTO followUser(final Long fromUserId, final Long toUserId) throws UserFollowingException, UserNotFoundException {
-        UserDTO fromUser = userService.getUserById(fromUserId); //corrobora si existen los usuarios
-        UserDTO toUser = userService.getUserById(toUserId);
-        if(followRepository.findByFromUserIdAndToUserId(fromUser.id(), toUser.id(), FollowDTO.class).isPresent()){
+        if(followRepository.findByFromUserIdAndToUserId(fromUserId, toUserId, FollowDTO.class).isPresent()){
             throw new UserFollowingException("Usuario ya sigue a este usuario");
         }
 
-        FollowEntity follow = followRepository.save(FollowEntity.builder()
-                .fromUserId(fromUserId)
-                .toUserId(toUserId)
-                .createdAt(LocalDateTime.now())
-                .build());
+        FollowEntity follow;
+        try {
+            follow = followRepository.saveAndFlush(FollowEntity.builder()
+                    .fromUserId(fromUserId)
+                    .toUserId(toUserId)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Otro request creó el mismo seguimiento entre la consulta y el insert (uk_follows_from_to)
+            throw new UserFollowingException("Usuario ya sigue a este usuario");
+        }
 
-        accountService.incrementFollowings(fromUserId);
-        accountService.incrementFollowers(toUserId);
+        // Los UPDATE atómicos de los contadores también corroboran que existan ambas cuentas
+        if (!accountService.incrementFollowings(fromUserId) || !accountService.incrementFollowers(toUserId)) {
+            throw new UserNotFoundException("Usuario no encontrado");
+        }
+        followGraph.invalidateAfterCommit(fromUserId, toUserId);
 
         return DTOConverter.toDTO(follow, FollowDTO.class);
     }
 
     @Override
     public List<UserDTO> getFollowers(final Long id) throws UserNotFoundException {
+        return getFollowers(id, Pageable.unpaged()).getContent();
+    }
+
+    @Override
+    public Page<UserDTO> getFollowers(final Long id, final Pageable pageable) throws UserNotFoundException {
         UserDTO user = userService.getUserById(id);
-        List<Long> followersIds = followRepository.findByToUserId(user.id()).stream().map(FollowEntity::getFromUserId).toList();
-        return followersIds.stream().map(followerId -> {
-            try {
-                return userService.getUserById(followerId);
-            } catch (UserNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
+        return followRepository.findFollowerUsers(user.id(), pageable).map(userMapper::toDTO);
     }
 
     @Override
     public List<UserDTO> getFollowings(final Long id) throws UserNotFoundException {
+        return getFollowings(id, Pageable.unpaged()).getContent();
+    }
+
+    @Override
+    public Page<UserDTO> getFollowings(final Long id, final Pageable pageable) throws UserNotFoundException {
         UserDTO user = userService.getUserById(id);
-        List<Long> followingsIds = followRepository.findByFromUserId(user.id()).stream().map(FollowEntity::getToUserId).toList();
-        return followingsIds.stream().map(followingId-> {
-            try {
-                return userService.getUserById(followingId);
-            } catch (UserNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        }).toList();
+        return followRepository.findFollowingUsers(user.id(), pageable).map(userMapper::toDTO);
+    }
+
+    @Override
+    public List<Long> getFollowingIds(final Long id) {
+        return followGraph.getFollowingIds(id).toList();
+    }
+
+    @Override
+    public List<Long> getFollowerIds(final Long id) {
+        return followGraph.getFollowerIds(id).toList();
     }
 
     @Override
@@ -77,14 +98,17 @@ public class FollowService implements IFollowService {
     }
 
     @Override
+    @Transactional
     public FollowDTO unfollowUser(Long fromUserId, Long toUserId) {
         FollowEntity follow = followRepository.findByFromUserIdAndToUserId(fromUserId, toUserId)
                 .orElseThrow(() -> new RuntimeException("No se encontro la relacion de seguimiento"));
 
-        followRepository.delete(follow);
-
-        accountService.decrementFollowings(fromUserId);
-        accountService.decrementFollowers(toUserId);
+        // Solo descuenta quien efectivamente borró la fila, aunque lleguen dos unfollow a la vez
+        if (followRepository.deleteFollow(fromUserId, toUserId) > 0) {
+            accountService.decrementFollowings(fromUserId);
+            accountService.decrementFollowers(toUserId);
+        }
+        followGraph.invalidateAfterCommit(fromUserId, toUserId);
 
         return DTOConverter.toDTO(follow, FollowDTO.class);
     }
@@ -4,6 +4,8 @@ import org.cinos.core.follows.dto.FollowDTO;
 import org.cinos.core.users.dto.UserDTO;
 import org.cinos.core.users.utils.exceptions.UserFollowingException;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -11,6 +13,18 @@ public interface IFollowService {
     FollowDTO followUser(Long fromUserId, Long toUserId) throws UserFollowingException, UserNotFoundException;
     List<UserDTO> getFollowers(Long id) throws UserNotFoundException;
     List<UserDTO> getFollowings(Long id) throws UserNotFoundException;
+    Page<UserDTO> getFollowers(Long id, Pageable pageable) throws UserNotFoundException;
+    Page<UserDTO> getFollowings(Long id, Pageable pageable) throws UserNotFoundException;
+
+    /**
+     * IDs seguidos por el usuario, desde la caché del grafo de seguimientos
+     */
+    List<Long> getFollowingIds(Long id);
+
+    /**
+     * IDs de los seguidores del usuario, desde la caché del grafo de seguimientos
+     */
+    List<Long> getFollowerIds(Long id);
 
     Boolean isFollowing(Long fromUserId, Long toUserId);
 
@@ -0,0 +1,47 @@
+package org.cinos.core.follows.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conjunto inmutable de IDs guardado como un long[] ordenado: ocupa 8 bytes por ID
+ * (sin boxing ni nodos de HashSet) y resuelve contains por búsqueda binaria.
+ */
+public final class LongIdSet {
+
+    public static final LongIdSet EMPTY = new LongIdSet(new long[0]);
+
+    private final long[] ids;
+
+    private LongIdSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    public static LongIdSet of(Collection<Long> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new LongIdSet(ids);
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Copia como lista, para pasar a consultas IN
+     */
+    public List<Long> toList() {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
@@ -1,13 +1,26 @@
 package org.cinos.core.messages.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.cinos.core.auth.service.JwtService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP sobre WebSocket. Con messages.broker.mode=simple las suscripciones viven en esta instancia;
+ * con relay se reenvían a un broker STOMP externo (RabbitMQ, ActiveMQ) y los destinos /user
+ * se resuelven entre instancias, para poder correr varios nodos detrás del balanceador.
+ */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
@@ -15,15 +28,99 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtService jwtService;
 
+    @Autowired
+    @Lazy
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${messages.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${messages.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${messages.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${messages.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${messages.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${messages.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    // Heartbeats en ms: [envío, recepción]; 0 los desactiva
+    @Value("${messages.broker.heartbeat-send-ms:10000}")
+    private long heartbeatSendMs;
+
+    @Value("${messages.broker.heartbeat-receive-ms:10000}")
+    private long heartbeatReceiveMs;
+
+    @Value("${messages.broker.inbound.core-pool-size:0}")
+    private int inboundCorePoolSize;
+
+    @Value("${messages.broker.inbound.max-pool-size:0}")
+    private int inboundMaxPoolSize;
+
+    @Value("${messages.broker.outbound.core-pool-size:0}")
+    private int outboundCorePoolSize;
+
+    @Value("${messages.broker.outbound.max-pool-size:0}")
+    private int outboundMaxPoolSize;
+
+    @Value("${messages.broker.outbound.queue-capacity:0}")
+    private int outboundQueueCapacity;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
-        // <- agregás "/queue"
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setVirtualHost(relayVirtualHost.isBlank() ? null : relayVirtualHost)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatSendMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatReceiveMs)
+                    // Mensajes a usuarios conectados en otra instancia y registro de sesiones compartido
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            log.info("Broker STOMP externo en {}:{}", relayHost, relayPort);
+        } else {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[]{heartbeatSendMs, heartbeatReceiveMs})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (inboundCorePoolSize > 0) {
+            registration.taskExecutor().corePoolSize(inboundCorePoolSize)
+                    .maxPoolSize(Math.max(inboundCorePoolSize, inboundMaxPoolSize));
+        }
+    }
+
+    /**
+     * Pool que escribe a las sesiones WebSocket; 0 deja los valores por defecto de Spring
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (outboundCorePoolSize > 0) {
+            var executor = registration.taskExecutor().corePoolSize(outboundCorePoolSize)
+                    .maxPoolSize(Math.max(outboundCorePoolSize, outboundMaxPoolSize));
+            if (outboundQueueCapacity > 0) {
+                executor.queueCapacity(outboundQueueCapacity);
+            }
+        }
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
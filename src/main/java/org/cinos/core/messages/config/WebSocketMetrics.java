@@ -0,0 +1,42 @@
+package org.cinos.core.messages.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Profundidad de cola e hilos activos de los canales de STOMP; una cola de salida que crece
+ * indica clientes lentos o un pool chico (messages.broker.outbound.*)
+ */
+@Component
+public class WebSocketMetrics implements MeterBinder {
+
+    private final ThreadPoolTaskExecutor inboundExecutor;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+
+    public WebSocketMetrics(@Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "inbound", inboundExecutor);
+        bind(registry, "outbound", outboundExecutor);
+    }
+
+    private void bind(MeterRegistry registry, String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("chat.channel.queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Mensajes esperando en la cola del canal")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("chat.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Hilos del canal procesando mensajes")
+                .tag("channel", channel)
+                .register(registry);
+    }
+}
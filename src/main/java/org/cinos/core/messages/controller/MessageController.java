@@ -2,18 +2,24 @@ package org.cinos.core.messages.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.cinos.core.auth.model.AuthenticatedUser;
 import org.cinos.core.messages.dto.ConversationDTO;
 import org.cinos.core.messages.dto.MessageDTO;
 import org.cinos.core.messages.dto.SendMessageRequest;
 import org.cinos.core.messages.entity.MessageEntity;
 import org.cinos.core.messages.service.IConversationService;
 import org.cinos.core.messages.service.IMessageService;
-import org.cinos.core.users.service.IUserService;
+import org.cinos.core.posts.dto.CursorPageDTO;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.time.ZonedDateTime;
@@ -24,17 +30,15 @@ import java.time.ZoneId;
 @RequiredArgsConstructor
 public class MessageController {
     private final IMessageService messageService;
-    private final IUserService userService;
     private final IConversationService conversationService;
 
     @PostMapping("/send")
     public ResponseEntity<MessageDTO> sendMessage(
             @RequestBody @Valid SendMessageRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) throws UserNotFoundException {
+            @AuthenticationPrincipal AuthenticatedUser user) throws UserNotFoundException {
 
-        Long senderId = userService.getByUsername(userDetails.getUsername()).id();
         MessageDTO message = messageService.sendMessage(
-                senderId,
+                user.getId(),
                 request.recipientId(),
                 request.content()
         );
@@ -61,9 +65,46 @@ public class MessageController {
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/conversation/{conversationId}/history")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getMessageHistory(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(messageService.getMessageHistory(conversationId, user.getId(), before, after, size));
+    }
+
+    @PostMapping("/conversation/{conversationId}/seen")
+    public ResponseEntity<Integer> markConversationSeen(
+            @PathVariable Long conversationId,
+            @RequestParam Long upTo,
+            @AuthenticationPrincipal AuthenticatedUser user) throws UserNotFoundException {
+        return ResponseEntity.ok(messageService.markConversationSeen(conversationId, user.getId(), upTo));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Long> getUnreadCount(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(messageService.getUnreadCount(user.getId()));
+    }
+
     @GetMapping("/conversations/{userId}")
-    public ResponseEntity<List<ConversationDTO>> getConversations(@PathVariable final Long userId) {
-        return ResponseEntity.ok(conversationService.getUserConversations(userId));
+    public ResponseEntity<List<ConversationDTO>> getConversations(@PathVariable final Long userId,
+                                                                  @AuthenticationPrincipal AuthenticatedUser user) {
+        requireSelf(userId, user);
+        return ResponseEntity.ok(conversationService.getUserConversations(user.getId()));
+    }
+
+    @GetMapping("/conversations/{userId}/inbox")
+    public ResponseEntity<Page<ConversationDTO>> getInbox(@PathVariable final Long userId,
+                                                          @RequestParam final Integer page,
+                                                          @RequestParam final Integer size,
+                                                          @AuthenticationPrincipal AuthenticatedUser user) {
+        requireSelf(userId, user);
+        if (page < 0 || size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page debe ser >= 0 y size > 0");
+        }
+        return ResponseEntity.ok(conversationService.getInbox(user.getId(), PageRequest.of(page, size)));
     }
 
     @GetMapping("/conversation/{id}")
@@ -71,6 +112,15 @@ public class MessageController {
         return ResponseEntity.ok(conversationService.getById(id, userDetails.getUsername()));
     }
 
+    /**
+     * La bandeja es del usuario autenticado; el id de la ruta se mantiene por compatibilidad y debe coincidir
+     */
+    private static void requireSelf(Long userId, AuthenticatedUser user) {
+        if (!user.getId().equals(userId)) {
+            throw new AccessDeniedException("Solo podés ver tus propias conversaciones");
+        }
+    }
+
     @GetMapping("/conversation/between")
     public ResponseEntity<ConversationDTO> getConversationBetween(
             @RequestParam Long userSendId,
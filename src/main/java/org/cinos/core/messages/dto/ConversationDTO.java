@@ -2,6 +2,8 @@ package org.cinos.core.messages.dto;
 
 import lombok.Builder;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 @Builder
@@ -11,4 +13,16 @@ public record ConversationDTO(
         String lastMessage,
         Long receiverId,
         String receiverName,
-        String receiverAvatar) {}
+        String receiverAvatar,
+        Long lastSenderId,
+        Long unreadCount) {
+
+    /**
+     * Usado por la consulta de la bandeja de entrada (ConversationInboxRepository.findInbox)
+     */
+    public ConversationDTO(Long id, LocalDateTime lastUpdated, String lastMessage, Long receiverId, String receiverName,
+                           String receiverAvatar, Long lastSenderId, Long unreadCount) {
+        this(id, lastUpdated != null ? lastUpdated.atZone(ZoneId.systemDefault()) : null, lastMessage != null ? lastMessage : "",
+                receiverId, receiverName, receiverAvatar, lastSenderId, unreadCount);
+    }
+}
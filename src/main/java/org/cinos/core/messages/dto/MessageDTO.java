@@ -2,6 +2,8 @@ package org.cinos.core.messages.dto;
 
 import lombok.Builder;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 @Builder
@@ -11,4 +13,11 @@ public record MessageDTO(
         Long recipientId,
         String content,
         ZonedDateTime timestamp
-) {}
\ No newline at end of file
+) {
+    /**
+     * Usado por las proyecciones JPQL del historial (sin cargar MessageEntity ni las cuentas)
+     */
+    public MessageDTO(Long id, Long senderId, Long recipientId, String content, LocalDateTime timestamp) {
+        this(id, senderId, recipientId, content, timestamp != null ? timestamp.atZone(ZoneId.systemDefault()) : null);
+    }
+}
\ No newline at end of file
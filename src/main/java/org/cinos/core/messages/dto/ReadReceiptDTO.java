@@ -0,0 +1,17 @@
+package org.cinos.core.messages.dto;
+
+import lombok.Builder;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Aviso al remitente de que el lector vio sus mensajes de la conversación hasta upToMessageId
+ */
+@Builder
+public record ReadReceiptDTO(
+        Long conversationId,
+        Long readerId,
+        Long upToMessageId,
+        Integer seenCount,
+        ZonedDateTime seenAt
+) {}
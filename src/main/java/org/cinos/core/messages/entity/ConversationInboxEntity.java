@@ -0,0 +1,47 @@
+package org.cinos.core.messages.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bandeja de entrada desnormalizada: una fila por conversación y participante con el último
+ * mensaje y los no leídos de ese participante. Se actualiza al enviar y al leer mensajes.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "CONVERSATION_INBOX",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversation_inbox_conversation_account", columnNames = {"conversation_id", "account_id"}),
+        indexes = @Index(name = "idx_conversation_inbox_account_updated", columnList = "account_id, last_updated"))
+public class ConversationInboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+
+    // Dueño de la fila y el otro participante de la conversación
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "counterpart_id", nullable = false)
+    private Long counterpartId;
+
+    @Column(name = "last_message")
+    private String lastMessage;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+}
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "MESSAGES")
+@Table(name = "MESSAGES", indexes = {
+        @Index(name = "idx_messages_conversation_timestamp", columnList = "conversation_id, timestamp"),
+        @Index(name = "idx_messages_conversation_id", columnList = "conversation_id, id"),
+        @Index(name = "idx_messages_recipient_seen", columnList = "recipient_id, seen")
+})
 public class MessageEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
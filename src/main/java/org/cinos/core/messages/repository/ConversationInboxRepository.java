@@ -0,0 +1,85 @@
+package org.cinos.core.messages.repository;
+
+import org.cinos.core.messages.dto.ConversationDTO;
+import org.cinos.core.messages.entity.ConversationInboxEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConversationInboxRepository extends JpaRepository<ConversationInboxEntity, Long> {
+
+    /**
+     * Bandeja del usuario con los datos del otro participante, en una sola consulta sobre (account_id, last_updated)
+     */
+    @Query(value = "SELECT new org.cinos.core.messages.dto.ConversationDTO(i.conversationId, i.lastUpdated, i.lastMessage, " +
+            "a.id, CONCAT(u.name, ' ', u.lastname), a.avatarImg, i.lastSenderId, i.unreadCount) " +
+            "FROM ConversationInboxEntity i, AccountEntity a JOIN a.user u " +
+            "WHERE i.accountId = :accountId AND a.id = i.counterpartId " +
+            "ORDER BY i.lastUpdated DESC, i.conversationId DESC",
+            countQuery = "SELECT COUNT(i) FROM ConversationInboxEntity i WHERE i.accountId = :accountId")
+    Page<ConversationDTO> findInbox(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query("SELECT i.counterpartId FROM ConversationInboxEntity i WHERE i.conversationId = :conversationId AND i.accountId = :accountId")
+    Optional<Long> findCounterpartId(@Param("conversationId") Long conversationId, @Param("accountId") Long accountId);
+
+    @Query("SELECT COALESCE(SUM(i.unreadCount), 0) FROM ConversationInboxEntity i WHERE i.accountId = :accountId")
+    long sumUnread(@Param("accountId") Long accountId);
+
+    @Query("SELECT i.accountId FROM ConversationInboxEntity i WHERE i.conversationId = :conversationId")
+    List<Long> findAccountIdsByConversationId(@Param("conversationId") Long conversationId);
+
+    /**
+     * Inserta la fila solo si no existe (clave única conversación + cuenta); devuelve 0 si ya la creó otra transacción
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO conversation_inbox " +
+            "(conversation_id, account_id, counterpart_id, last_message, last_sender_id, last_updated, unread_count) " +
+            "VALUES (:conversationId, :accountId, :counterpartId, :lastMessage, :lastSenderId, :lastUpdated, :unreadCount)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("conversationId") Long conversationId,
+                       @Param("accountId") Long accountId,
+                       @Param("counterpartId") Long counterpartId,
+                       @Param("lastMessage") String lastMessage,
+                       @Param("lastSenderId") Long lastSenderId,
+                       @Param("lastUpdated") LocalDateTime lastUpdated,
+                       @Param("unreadCount") Long unreadCount);
+
+    /**
+     * Registra un mensaje en las filas de ambos participantes; solo al destinatario le suma un no leído
+     */
+    @Modifying
+    @Query("UPDATE ConversationInboxEntity i SET i.lastMessage = :snippet, i.lastSenderId = :senderId, i.lastUpdated = :sentAt, " +
+            "i.unreadCount = i.unreadCount + CASE WHEN i.accountId = :recipientId THEN 1 ELSE 0 END " +
+            "WHERE i.conversationId = :conversationId")
+    int recordMessage(@Param("conversationId") Long conversationId,
+                      @Param("senderId") Long senderId,
+                      @Param("recipientId") Long recipientId,
+                      @Param("snippet") String snippet,
+                      @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Igual que recordMessage, pero solo sobre la fila de un participante
+     */
+    @Modifying
+    @Query("UPDATE ConversationInboxEntity i SET i.lastMessage = :snippet, i.lastSenderId = :senderId, i.lastUpdated = :sentAt, " +
+            "i.unreadCount = i.unreadCount + CASE WHEN i.accountId = :recipientId THEN 1 ELSE 0 END " +
+            "WHERE i.conversationId = :conversationId AND i.accountId = :accountId")
+    int recordMessageFor(@Param("conversationId") Long conversationId,
+                         @Param("accountId") Long accountId,
+                         @Param("senderId") Long senderId,
+                         @Param("recipientId") Long recipientId,
+                         @Param("snippet") String snippet,
+                         @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE ConversationInboxEntity i SET i.unreadCount = CASE WHEN i.unreadCount > :count THEN i.unreadCount - :count ELSE 0 END " +
+            "WHERE i.conversationId = :conversationId AND i.accountId = :accountId")
+    int decrementUnread(@Param("conversationId") Long conversationId, @Param("accountId") Long accountId, @Param("count") long count);
+}
@@ -1,10 +1,13 @@
 package org.cinos.core.messages.repository;
 
-import feign.Param;
 import org.cinos.core.messages.entity.ConversationEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +20,24 @@ public interface ConversationRepository extends JpaRepository<ConversationEntity
     """)
     Optional<ConversationEntity> findByParticipants(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
     List<ConversationEntity> findByParticipants_Id(Long userId);
+
+    @Query("""
+    SELECT c.id FROM ConversationEntity c
+    JOIN c.participants p1
+    JOIN c.participants p2
+    WHERE p1.id = :userId1 AND p2.id = :userId2
+    """)
+    Optional<Long> findIdByParticipants(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+
+    // Usa la clave primaria de conversations_participants (conversación, cuenta)
+    @Query("SELECT COUNT(c) > 0 FROM ConversationEntity c JOIN c.participants p WHERE c.id = :conversationId AND p.id = :accountId")
+    boolean isParticipant(@Param("conversationId") Long conversationId, @Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("UPDATE ConversationEntity c SET c.lastUpdated = :lastUpdated WHERE c.id = :id")
+    int updateLastUpdated(@Param("id") Long id, @Param("lastUpdated") LocalDateTime lastUpdated);
+
+    @Query("SELECT c.id FROM ConversationEntity c WHERE c.id > :lastId " +
+           "AND NOT EXISTS (SELECT 1 FROM ConversationInboxEntity i WHERE i.conversationId = c.id) ORDER BY c.id")
+    List<Long> findIdsWithoutInbox(@Param("lastId") Long lastId, Pageable pageable);
 }
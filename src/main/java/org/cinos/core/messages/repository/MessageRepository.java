@@ -1,12 +1,47 @@
 package org.cinos.core.messages.repository;
 
+import org.cinos.core.messages.dto.MessageDTO;
 import org.cinos.core.messages.entity.MessageEntity;
-import org.cinos.core.users.entity.AccountEntity;
+import org.cinos.core.messages.model.MessageStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<MessageEntity, Long> {
+    String MESSAGE_DTO = "SELECT new org.cinos.core.messages.dto.MessageDTO(m.id, m.sender.id, m.recipient.id, m.content, m.timestamp) " +
+            "FROM MessageEntity m ";
+
     List<MessageEntity> findByConversationIdOrderByTimestampAsc(Long conversationId);
-    Long countByRecipientAndSeen(AccountEntity recipient, boolean seen);
+
+    /**
+     * Últimos mensajes de la conversación, del más nuevo al más viejo (índice conversation_id, id)
+     */
+    @Query(MESSAGE_DTO + "WHERE m.conversation.id = :conversationId ORDER BY m.id DESC")
+    List<MessageDTO> findLatest(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    @Query(MESSAGE_DTO + "WHERE m.conversation.id = :conversationId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<MessageDTO> findBefore(@Param("conversationId") Long conversationId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(MESSAGE_DTO + "WHERE m.conversation.id = :conversationId AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageDTO> findAfter(@Param("conversationId") Long conversationId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Marca como vistos en una sola sentencia los mensajes recibidos hasta upToId; devuelve cuántos cambió
+     */
+    @Modifying
+    @Query("UPDATE MessageEntity m SET m.seen = true, m.status = :status " +
+            "WHERE m.conversation.id = :conversationId AND m.recipient.id = :recipientId AND m.id <= :upToId " +
+            "AND COALESCE(m.seen, false) = false")
+    int markSeenUpTo(@Param("conversationId") Long conversationId,
+                     @Param("recipientId") Long recipientId,
+                     @Param("upToId") Long upToId,
+                     @Param("status") MessageStatus status);
+
+    @Query("SELECT COUNT(m) FROM MessageEntity m WHERE m.conversation.id = :conversationId AND m.recipient.id = :recipientId " +
+            "AND COALESCE(m.seen, false) = false")
+    long countUnread(@Param("conversationId") Long conversationId, @Param("recipientId") Long recipientId);
 }
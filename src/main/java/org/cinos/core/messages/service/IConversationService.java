@@ -3,13 +3,35 @@ package org.cinos.core.messages.service;
 import org.cinos.core.messages.dto.ConversationDTO;
 import org.cinos.core.messages.entity.ConversationEntity;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface IConversationService {
     ConversationDTO getOrCreateConversation(Long user1Id, Long user2Id) throws UserNotFoundException;
     List<ConversationDTO> getUserConversations(Long userId);
+
+    /**
+     * Bandeja de entrada paginada, ordenada por la última actividad
+     */
+    Page<ConversationDTO> getInbox(Long userId, Pageable pageable);
     ConversationDTO getById(Long id, String username);
     void save(ConversationEntity conversationEntity);
     ConversationEntity getEntityById(Long id);
+
+    /**
+     * Id de la conversación entre ambos usuarios, creándola si no existe, sin cargar la entidad
+     */
+    Long getOrCreateConversationId(Long user1Id, Long user2Id);
+
+    ConversationEntity getReference(Long id);
+
+    void touch(Long id, LocalDateTime lastUpdated);
+
+    /**
+     * Indica si la cuenta participa de la conversación
+     */
+    boolean isParticipant(Long conversationId, Long accountId);
 }
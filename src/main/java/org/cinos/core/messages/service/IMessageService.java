@@ -2,6 +2,7 @@ package org.cinos.core.messages.service;
 
 import org.cinos.core.messages.dto.MessageDTO;
 import org.cinos.core.messages.entity.MessageEntity;
+import org.cinos.core.posts.dto.CursorPageDTO;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 
 import java.util.List;
@@ -10,5 +11,20 @@ public interface IMessageService {
     MessageDTO sendMessage(Long senderId, Long recipientId, String content) throws UserNotFoundException;
     void markAsSeen(Long messageId);
 
+    /**
+     * Marca como vistos los mensajes recibidos por el lector en la conversación hasta upToMessageId
+     * y avisa al remitente por /user/queue/read-receipts. Devuelve cuántos mensajes cambiaron.
+     */
+    int markConversationSeen(Long conversationId, Long readerId, Long upToMessageId) throws UserNotFoundException;
+
+    long getUnreadCount(Long accountId);
+
     List<MessageEntity> getMessagesByConversation(Long conversationId);
+
+    /**
+     * Página del historial en orden cronológico: los últimos mensajes, los anteriores a beforeId
+     * o los posteriores a afterId. nextCursor es el id desde el que seguir en la misma dirección.
+     * Solo para participantes de la conversación (AccessDeniedException si no lo es).
+     */
+    CursorPageDTO<MessageDTO> getMessageHistory(Long conversationId, Long accountId, Long beforeId, Long afterId, Integer size);
 }
@@ -0,0 +1,162 @@
+package org.cinos.core.messages.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.messages.dto.MessageDTO;
+import org.cinos.core.notifications.entity.PushTokenEntity;
+import org.cinos.core.notifications.repository.PushTokenRepository;
+import org.cinos.core.notifications.service.FirebaseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Entrega de mensajes de chat: por WebSocket si el destinatario está conectado y, si no,
+ * por push de FCM agrupando en cada ventana los mensajes pendientes de cada destinatario.
+ */
+@Slf4j
+@Service
+public class ChatDeliveryService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceRegistry presenceRegistry;
+    private final PushTokenRepository pushTokenRepository;
+    private final FirebaseService firebaseService;
+    private final Timer websocketLatency;
+    private final Timer pushLatency;
+    private final Counter droppedQueueFull;
+    private final Counter droppedFirebaseUnavailable;
+
+    private final ConcurrentLinkedQueue<PendingPush> pendingPushes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    @Value("${messages.push.max-pending:10000}")
+    private int maxPending;
+
+    public ChatDeliveryService(SimpMessagingTemplate messagingTemplate,
+                               PresenceRegistry presenceRegistry,
+                               PushTokenRepository pushTokenRepository,
+                               FirebaseService firebaseService,
+                               MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.presenceRegistry = presenceRegistry;
+        this.pushTokenRepository = pushTokenRepository;
+        this.firebaseService = firebaseService;
+        this.websocketLatency = Timer.builder("chat.delivery.latency")
+                .description("Tiempo desde que se guarda el mensaje hasta que se entrega")
+                .tag("channel", "websocket")
+                .register(meterRegistry);
+        this.pushLatency = Timer.builder("chat.delivery.latency")
+                .description("Tiempo desde que se guarda el mensaje hasta que se entrega")
+                .tag("channel", "push")
+                .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("chat.push.dropped")
+                .description("Push de chat descartados")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.droppedFirebaseUnavailable = Counter.builder("chat.push.dropped")
+                .description("Push de chat descartados")
+                .tag("reason", "firebase_unavailable")
+                .register(meterRegistry);
+        meterRegistry.gauge("chat.push.pending", pendingCount);
+    }
+
+    /**
+     * Debe llamarse con el mensaje ya confirmado (afterCommit), para no avisar de mensajes revertidos
+     */
+    public void deliver(Long recipientId, String recipientUsername, MessageDTO message) {
+        if (presenceRegistry.isOnline(recipientUsername)) {
+            messagingTemplate.convertAndSendToUser(recipientUsername, "/queue/messages", message);
+            websocketLatency.record(sinceSent(message));
+            return;
+        }
+        if (!firebaseService.isFirebaseAvailable()) {
+            droppedFirebaseUnavailable.increment();
+            log.debug("Firebase no disponible, se descarta el push del mensaje {}", message.id());
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            droppedQueueFull.increment();
+            log.warn("Cola de push de chat llena, se descarta el aviso del mensaje {}", message.id());
+            return;
+        }
+        pendingPushes.add(new PendingPush(recipientId, message));
+    }
+
+    /**
+     * Envía los push acumulados: una consulta de tokens para todos los destinatarios
+     * y un multicast por destinatario con sus mensajes de la ventana. Si Firebase no está disponible
+     * la cola se conserva (acotada por messages.push.max-pending) hasta la próxima ventana
+     */
+    @Scheduled(fixedDelayString = "${messages.push.batch-ms:2000}")
+    public void flushPushes() {
+        if (!firebaseService.isFirebaseAvailable()) {
+            return;
+        }
+        List<PendingPush> batch = new ArrayList<>();
+        PendingPush pending;
+        while ((pending = pendingPushes.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<MessageDTO>> byRecipient = batch.stream().collect(Collectors.groupingBy(
+                PendingPush::recipientId, LinkedHashMap::new, Collectors.mapping(PendingPush::message, Collectors.toList())));
+        Map<Long, List<String>> tokensByUser = pushTokenRepository.findByUserIdsAndActive(new ArrayList<>(byRecipient.keySet()))
+                .stream()
+                .collect(Collectors.groupingBy(token -> token.getUser().getId(),
+                        Collectors.mapping(PushTokenEntity::getToken, Collectors.toList())));
+
+        byRecipient.forEach((recipientId, messages) -> {
+            List<String> tokens = tokensByUser.get(recipientId);
+            if (tokens == null || tokens.isEmpty()) {
+                return;
+            }
+            MessageDTO last = messages.get(messages.size() - 1);
+            String body = messages.size() == 1
+                    ? ConversationInboxService.snippet(last.content())
+                    : messages.size() + " mensajes nuevos";
+            try {
+                // Sin esperar a FCM: este método corre en el hilo compartido de @Scheduled
+                var sent = firebaseService.sendNotificationToTokensAsync(tokens, "Nuevo mensaje", body, Map.of(
+                        "type", "chat_message",
+                        "messageId", String.valueOf(last.id()),
+                        "senderId", String.valueOf(last.senderId())));
+                if (sent != null) {
+                    sent.whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.error("Error enviando push de chat al usuario {}: {}", recipientId, error.getMessage());
+                            return;
+                        }
+                        messages.forEach(message -> pushLatency.record(sinceSent(message)));
+                    });
+                }
+            } catch (Exception e) {
+                log.error("Error enviando push de chat al usuario {}: {}", recipientId, e.getMessage());
+            }
+        });
+    }
+
+    private static Duration sinceSent(MessageDTO message) {
+        return message.timestamp() != null ? Duration.between(message.timestamp(), ZonedDateTime.now()) : Duration.ZERO;
+    }
+
+    private record PendingPush(Long recipientId, MessageDTO message) {}
+}
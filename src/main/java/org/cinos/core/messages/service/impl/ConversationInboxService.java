@@ -0,0 +1,154 @@
+package org.cinos.core.messages.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.messages.dto.ConversationDTO;
+import org.cinos.core.messages.dto.MessageDTO;
+import org.cinos.core.messages.entity.ConversationEntity;
+import org.cinos.core.messages.repository.ConversationInboxRepository;
+import org.cinos.core.messages.repository.ConversationRepository;
+import org.cinos.core.messages.repository.MessageRepository;
+import org.cinos.core.users.entity.AccountEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantiene la bandeja de entrada desnormalizada (CONVERSATION_INBOX) y la consulta paginada
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConversationInboxService {
+
+    static final int SNIPPET_LENGTH = 140;
+    private static final int PARTICIPANTS_PER_CONVERSATION = 2;
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    private final ConversationInboxRepository inboxRepository;
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public Page<ConversationDTO> getInbox(Long accountId, Pageable pageable) {
+        return inboxRepository.findInbox(accountId, pageable);
+    }
+
+    /**
+     * Actualiza las filas de ambos participantes; si falta alguna (conversaciones previas a la bandeja) la reconstruye.
+     * Las filas que reconstruye ya incluyen este mensaje; si otra transacción creó la fila después del UPDATE,
+     * el insert se ignora y el mensaje se aplica sobre esa fila
+     */
+    @Transactional
+    public void recordMessage(Long conversationId, Long senderId, Long recipientId, String content, LocalDateTime sentAt) {
+        String snippet = snippet(content);
+        int updated = inboxRepository.recordMessage(conversationId, senderId, recipientId, snippet, sentAt);
+        if (updated < PARTICIPANTS_PER_CONVERSATION) {
+            conversationRepository.findById(conversationId).ifPresent(conversation -> {
+                for (Long accountId : createMissingRows(conversation)) {
+                    inboxRepository.recordMessageFor(conversationId, accountId, senderId, recipientId, snippet, sentAt);
+                }
+            });
+        }
+    }
+
+    @Transactional
+    public void markRead(Long conversationId, Long accountId, long count) {
+        if (count > 0) {
+            inboxRepository.decrementUnread(conversationId, accountId, count);
+        }
+    }
+
+    public Optional<Long> getCounterpartId(Long conversationId, Long accountId) {
+        return inboxRepository.findCounterpartId(conversationId, accountId);
+    }
+
+    /**
+     * Total de no leídos del usuario desde los contadores de la bandeja
+     */
+    public long getUnreadCount(Long accountId) {
+        return inboxRepository.sumUnread(accountId);
+    }
+
+    /**
+     * Crea las filas que falten a partir del último mensaje y los no leídos guardados en MESSAGES.
+     * Usa INSERT IGNORE: si una transacción concurrente ya creó la fila no falla, y devuelve esas cuentas
+     */
+    @Transactional
+    public List<Long> createMissingRows(ConversationEntity conversation) {
+        List<Long> existing = inboxRepository.findAccountIdsByConversationId(conversation.getId());
+        List<MessageDTO> latest = messageRepository.findLatest(conversation.getId(), PageRequest.of(0, 1));
+        MessageDTO lastMessage = latest.isEmpty() ? null : latest.get(0);
+
+        List<Long> createdConcurrently = new ArrayList<>();
+        for (AccountEntity participant : conversation.getParticipants()) {
+            if (existing.contains(participant.getId())) {
+                continue;
+            }
+            AccountEntity counterpart = conversation.getParticipants().stream()
+                    .filter(p -> !p.getId().equals(participant.getId()))
+                    .findFirst()
+                    .orElse(participant);
+            int inserted = inboxRepository.insertIfAbsent(
+                    conversation.getId(),
+                    participant.getId(),
+                    counterpart.getId(),
+                    lastMessage != null ? snippet(lastMessage.content()) : null,
+                    lastMessage != null ? lastMessage.senderId() : null,
+                    conversation.getLastUpdated(),
+                    messageRepository.countUnread(conversation.getId(), participant.getId()));
+            if (inserted == 0) {
+                createdConcurrently.add(participant.getId());
+            }
+        }
+        return createdConcurrently;
+    }
+
+    /**
+     * Completa la bandeja de las conversaciones creadas antes de que existiera
+     */
+    @Scheduled(initialDelayString = "${messages.inbox.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${messages.inbox.backfill-ms:3600000}")
+    public int backfillInbox() {
+        int completed = 0;
+        Long lastId = 0L;
+        List<Long> batch;
+        do {
+            batch = conversationRepository.findIdsWithoutInbox(lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            for (Long conversationId : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> conversationRepository.findById(conversationId)
+                            .ifPresent(this::createMissingRows));
+                    completed++;
+                } catch (Exception e) {
+                    log.warn("No se pudo completar la bandeja de la conversación {}: {}", conversationId, e.getMessage());
+                }
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+
+        if (completed > 0) {
+            log.info("Backfill de la bandeja de entrada: {} conversaciones completadas", completed);
+        }
+        return completed;
+    }
+
+    static String snippet(String content) {
+        if (content == null || content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(SNIPPET_LENGTH - 1)) ? SNIPPET_LENGTH - 1 : SNIPPET_LENGTH;
+        return content.substring(0, end);
+    }
+}
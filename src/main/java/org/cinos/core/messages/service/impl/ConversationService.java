@@ -7,7 +7,8 @@ import org.cinos.core.messages.repository.ConversationRepository;
 import org.cinos.core.messages.service.IConversationService;
 import org.cinos.core.users.entity.AccountEntity;
 import org.cinos.core.users.service.IAccountService;
-import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,30 +25,14 @@ public class ConversationService implements IConversationService {
 
     private final ConversationRepository conversationRepository;
     private final IAccountService accountService;
+    private final ConversationInboxService conversationInboxService;
 
     @Transactional
     public ConversationDTO getOrCreateConversation(Long user1Id, Long user2Id) {
         // Buscar si ya existe la conversación
         Optional<ConversationEntity> optionalConversation = conversationRepository.findByParticipants(user1Id, user2Id);
 
-        ConversationEntity conversation = optionalConversation.orElseGet(() -> {
-            // Si no existe, crearla
-            AccountEntity user1;
-            AccountEntity user2;
-            try {
-                user1 = accountService.getAccountEntityById(user1Id);
-                user2 = accountService.getAccountEntityById(user2Id);
-            } catch (UserNotFoundException e) {
-                throw new RuntimeException("Error al buscar usuarios para crear conversación", e);
-            }
-
-            ConversationEntity newConversation = ConversationEntity.builder()
-                    .participants(Set.of(user1, user2))
-                    .lastUpdated(ZonedDateTime.now(ZoneId.systemDefault()).toLocalDateTime())
-                    .build();
-
-            return conversationRepository.save(newConversation);
-        });
+        ConversationEntity conversation = optionalConversation.orElseGet(() -> createConversation(user1Id, user2Id));
 
         // Una vez que tenemos la conversación (ya sea nueva o existente), devolvemos un DTO
         AccountEntity receiver = conversation.getParticipants()
@@ -67,31 +52,12 @@ public class ConversationService implements IConversationService {
 
 
     public List<ConversationDTO> getUserConversations(Long userId) {
-        List<ConversationEntity> conversations = conversationRepository.findByParticipants_Id(userId);
-
-        return conversations.stream()
-                .map(conversation -> {
-                    // Buscar al "otro" participante
-                    AccountEntity receiver = conversation.getParticipants()
-                            .stream()
-                            .filter(p -> !p.getId().equals(userId))
-                            .findFirst()
-                            .orElseThrow(() -> new RuntimeException("Receiver not found"));
-
-                    // Buscar el último mensaje (opcional, depende de tu modelo)
-                    String lastMessage = conversation.getMessages() != null && !conversation.getMessages().isEmpty()
-                            ? conversation.getMessages().get(conversation.getMessages().size() - 1).getContent()
-                            : "";
-
-                    return ConversationDTO.builder()
-                            .id(conversation.getId())
-                            .lastUpdated(conversation.getLastUpdated().atZone(ZoneId.systemDefault()))
-                            .lastMessage(lastMessage)
-                            .receiverName(receiver.getUser().getName() + " " + receiver.getUser().getLastname()) // <- suponiendo que tenés un método getUser() en AccountEntity
-                            .receiverAvatar(receiver.getAvatarImg()) // <- suponiendo que tenés avatarUrl en AccountEntity
-                            .build();
-                })
-                .toList();
+        return conversationInboxService.getInbox(userId, Pageable.unpaged()).getContent();
+    }
+
+    @Override
+    public Page<ConversationDTO> getInbox(Long userId, Pageable pageable) {
+        return conversationInboxService.getInbox(userId, pageable);
     }
 
     @Override
@@ -126,5 +92,42 @@ public class ConversationService implements IConversationService {
                 .orElseThrow(() -> new RuntimeException("Conversation not found"));
     }
 
+    @Override
+    @Transactional
+    public Long getOrCreateConversationId(Long user1Id, Long user2Id) {
+        return conversationRepository.findIdByParticipants(user1Id, user2Id)
+                .orElseGet(() -> createConversation(user1Id, user2Id).getId());
+    }
+
+    @Override
+    public ConversationEntity getReference(Long id) {
+        return conversationRepository.getReferenceById(id);
+    }
+
+    @Override
+    @Transactional
+    public void touch(Long id, LocalDateTime lastUpdated) {
+        conversationRepository.updateLastUpdated(id, lastUpdated);
+    }
+
+    @Override
+    public boolean isParticipant(Long conversationId, Long accountId) {
+        return conversationRepository.isParticipant(conversationId, accountId);
+    }
+
+    /**
+     * Crea la conversación con sus filas de bandeja; los participantes se asocian por referencia
+     */
+    private ConversationEntity createConversation(Long user1Id, Long user2Id) {
+        ConversationEntity newConversation = ConversationEntity.builder()
+                .participants(Set.of(accountService.getAccountReference(user1Id), accountService.getAccountReference(user2Id)))
+                .lastUpdated(ZonedDateTime.now(ZoneId.systemDefault()).toLocalDateTime())
+                .build();
+
+        ConversationEntity saved = conversationRepository.save(newConversation);
+        conversationInboxService.createMissingRows(saved);
+        return saved;
+    }
+
 
 }
@@ -1,22 +1,30 @@
 package org.cinos.core.messages.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.cinos.core.messages.dto.ConversationDTO;
 import org.cinos.core.messages.dto.MessageDTO;
-import org.cinos.core.messages.entity.ConversationEntity;
+import org.cinos.core.messages.dto.ReadReceiptDTO;
 import org.cinos.core.messages.entity.MessageEntity;
 import org.cinos.core.messages.model.MessageStatus;
 import org.cinos.core.messages.repository.MessageRepository;
 import org.cinos.core.messages.service.IConversationService;
 import org.cinos.core.messages.service.IMessageService;
+import org.cinos.core.posts.dto.CursorPageDTO;
 import org.cinos.core.users.service.IAccountService;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -26,39 +34,48 @@ public class MessageService implements IMessageService {
     private final IConversationService conversationService;
     private final SimpMessagingTemplate messagingTemplate;
     private final IAccountService accountService;
+    private final ConversationInboxService conversationInboxService;
+    private final ChatDeliveryService chatDeliveryService;
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    @Value("${messages.history.page-size:30}")
+    private int historyPageSize;
+
+    /**
+     * Resuelve la conversación una sola vez y asocia conversación y cuentas por referencia:
+     * username del destinatario, id de la conversación, insert del mensaje, lastUpdated y bandeja,
+     * una sentencia cada uno
+     */
     @Transactional
     public MessageDTO sendMessage(Long senderId, Long recipientId, String content) throws UserNotFoundException {
-        ConversationDTO conversation = conversationService.getOrCreateConversation(senderId, recipientId);
-        ConversationEntity conversationEntity = conversationService.getEntityById(conversation.id());
+        String recipientUsername = accountService.getUsername(recipientId);
+        Long conversationId = conversationService.getOrCreateConversationId(senderId, recipientId);
+        LocalDateTime now = LocalDateTime.now();
 
         MessageEntity message = MessageEntity.builder()
-                .conversation(conversationEntity)
-                .sender(accountService.getAccountEntityById(senderId))
-                .recipient(accountService.getAccountEntityById(recipientId))
+                .conversation(conversationService.getReference(conversationId))
+                .sender(accountService.getAccountReference(senderId))
+                .recipient(accountService.getAccountReference(recipientId))
                 .content(content)
                 .status(MessageStatus.SENT)
-                .timestamp(LocalDateTime.now())
+                .seen(false)
+                .timestamp(now)
                 .build();
 
         MessageEntity savedMessage = messageRepository.save(message);
+        conversationService.touch(conversationId, now);
+        conversationInboxService.recordMessage(conversationId, senderId, recipientId, content, now);
 
         MessageDTO messageDTO = new MessageDTO(
                 savedMessage.getId(),
-                savedMessage.getSender().getId(),
-                savedMessage.getRecipient().getId(),
+                senderId,
+                recipientId,
                 savedMessage.getContent(),
                 savedMessage.getTimestamp().atZone(ZoneId.systemDefault())
         );
-        // Actualizar WebSocket
-        messagingTemplate.convertAndSendToUser(
-                accountService.getAccountEntityById(recipientId).getUser().getUsername(),
-                "/queue/messages",
-                messageDTO
-        );
-
-        conversationEntity.setLastUpdated(LocalDateTime.now());
-        conversationService.save(conversationEntity);
+        // WebSocket si está conectado, push si no; recién al confirmar el mensaje
+        afterCommit(() -> chatDeliveryService.deliver(recipientId, recipientUsername, messageDTO));
 
         return messageDTO;
     }
@@ -68,13 +85,97 @@ public class MessageService implements IMessageService {
         MessageEntity message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
+        if (Boolean.TRUE.equals(message.getSeen())) {
+            return;
+        }
         message.setSeen(true);
         message.setStatus(MessageStatus.SEEN);
         messageRepository.save(message);
+        conversationInboxService.markRead(message.getConversation().getId(), message.getRecipient().getId(), 1);
+    }
+
+    /**
+     * El aviso de lectura se envía recién al confirmar la transacción; si falla algo (incluido
+     * UserNotFoundException al resolver el remitente) se revierte todo y no se avisa
+     */
+    @Override
+    @Transactional(rollbackFor = UserNotFoundException.class)
+    public int markConversationSeen(Long conversationId, Long readerId, Long upToMessageId) throws UserNotFoundException {
+        int seen = messageRepository.markSeenUpTo(conversationId, readerId, upToMessageId, MessageStatus.SEEN);
+        if (seen == 0) {
+            return 0;
+        }
+        conversationInboxService.markRead(conversationId, readerId, seen);
+
+        Long senderId = conversationInboxService.getCounterpartId(conversationId, readerId).orElse(null);
+        if (senderId != null) {
+            String senderUsername = accountService.getUsername(senderId);
+            ReadReceiptDTO receipt = ReadReceiptDTO.builder()
+                    .conversationId(conversationId)
+                    .readerId(readerId)
+                    .upToMessageId(upToMessageId)
+                    .seenCount(seen)
+                    .seenAt(ZonedDateTime.now(ZoneId.systemDefault()))
+                    .build();
+            afterCommit(() -> messagingTemplate.convertAndSendToUser(senderUsername, "/queue/read-receipts", receipt));
+        }
+        return seen;
+    }
+
+    @Override
+    public long getUnreadCount(Long accountId) {
+        return conversationInboxService.getUnreadCount(accountId);
     }
 
     @Override
     public List<MessageEntity> getMessagesByConversation(Long conversationId) {
         return messageRepository.findByConversationIdOrderByTimestampAsc(conversationId);
     }
+
+    @Override
+    public CursorPageDTO<MessageDTO> getMessageHistory(Long conversationId, Long accountId, Long beforeId, Long afterId, Integer size) {
+        if (!conversationService.isParticipant(conversationId, accountId)) {
+            throw new AccessDeniedException("No participás de esta conversación");
+        }
+        int pageSize = size == null ? historyPageSize : Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<MessageDTO> messages;
+        if (afterId != null) {
+            messages = messageRepository.findAfter(conversationId, afterId, limit);
+        } else if (beforeId != null) {
+            messages = messageRepository.findBefore(conversationId, beforeId, limit);
+        } else {
+            messages = messageRepository.findLatest(conversationId, limit);
+        }
+
+        boolean hasNext = messages.size() > pageSize;
+        List<MessageDTO> content = new ArrayList<>(hasNext ? messages.subList(0, pageSize) : messages);
+        String nextCursor = hasNext ? String.valueOf(content.get(content.size() - 1).id()) : null;
+        if (afterId == null) {
+            // Las consultas hacia atrás vienen de la más nueva a la más vieja; el chat se muestra cronológico
+            Collections.reverse(content);
+        }
+        return CursorPageDTO.<MessageDTO>builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Ejecuta la acción al confirmar la transacción en curso (o en el momento, si no hay una)
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
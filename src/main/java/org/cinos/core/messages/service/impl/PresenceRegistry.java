@@ -0,0 +1,63 @@
+package org.cinos.core.messages.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Usuarios conectados por STOMP, alimentado por los eventos de conexión y desconexión de sesión.
+ * Cuenta sesiones por usuario (varias pestañas o dispositivos); con el broker externo también
+ * consulta el SimpUserRegistry, que conoce las sesiones de las otras instancias.
+ */
+@Slf4j
+@Component
+public class PresenceRegistry {
+
+    private final SimpUserRegistry simpUserRegistry;
+    private final Map<String, String> usernameBySession = new ConcurrentHashMap<>();
+    private final Map<String, Integer> sessionsByUser = new ConcurrentHashMap<>();
+
+    public PresenceRegistry(SimpUserRegistry simpUserRegistry, MeterRegistry meterRegistry) {
+        this.simpUserRegistry = simpUserRegistry;
+        Gauge.builder("chat.sessions.active", usernameBySession, Map::size)
+                .description("Sesiones STOMP abiertas en esta instancia")
+                .register(meterRegistry);
+        Gauge.builder("chat.users.online", sessionsByUser, Map::size)
+                .description("Usuarios con al menos una sesión STOMP en esta instancia")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user == null || sessionId == null) {
+            return;
+        }
+        if (usernameBySession.putIfAbsent(sessionId, user.getName()) == null) {
+            sessionsByUser.merge(user.getName(), 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        String username = usernameBySession.remove(event.getSessionId());
+        if (username != null) {
+            sessionsByUser.computeIfPresent(username, (key, sessions) -> sessions > 1 ? sessions - 1 : null);
+        }
+    }
+
+    public boolean isOnline(String username) {
+        return sessionsByUser.containsKey(username) || simpUserRegistry.getUser(username) != null;
+    }
+}
@@ -0,0 +1,55 @@
+package org.cinos.core.notifications.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.cinos.core.notifications.dto.PushNotificationRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación pendiente de envío, escrita en la misma transacción que el cambio que la origina.
+ * La procesa NotificationOutboxService; las filas enviadas se borran y las que agotan los
+ * reintentos quedan en estado DEAD para revisarlas.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "NOTIFICATION_OUTBOX",
+        indexes = @Index(name = "idx_notification_outbox_status_next", columnList = "status, next_attempt_at"))
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PushNotificationRequest.NotificationType type;
+
+    // Id de la entidad a notificar según el tipo (por ejemplo el post en NEW_POST)
+    @Column(name = "reference_id", nullable = false)
+    private Long referenceId;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Status {
+        PENDING, DEAD
+    }
+}
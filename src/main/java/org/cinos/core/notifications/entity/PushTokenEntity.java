@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "PUSH_TOKENS")
+@Table(name = "PUSH_TOKENS", indexes = {
+        @Index(name = "idx_push_tokens_user_active", columnList = "user_id, is_active"),
+        @Index(name = "idx_push_tokens_last_used", columnList = "last_used_at")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -39,6 +42,13 @@ public class PushTokenEntity {
     @Column(name = "last_used_at")
     private LocalDateTime lastUsedAt;
 
+    // Rechazos INVALID_ARGUMENT de FCM que no identifican al token como inválido; se desactiva al repetirse
+    @Column(name = "invalid_argument_failures", nullable = false)
+    private int invalidArgumentFailures;
+
+    @Column(name = "last_invalid_argument_at")
+    private LocalDateTime lastInvalidArgumentAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,32 @@
+package org.cinos.core.notifications.repository;
+
+import org.cinos.core.notifications.entity.NotificationOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    @Query("SELECT o.id FROM NotificationOutboxEntity o " +
+           "WHERE o.status = org.cinos.core.notifications.entity.NotificationOutboxEntity.Status.PENDING " +
+           "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Toma la fila corriendo su próximo intento hasta leaseUntil; devuelve 0 si otra instancia ya la tomó
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id = :id AND o.status = org.cinos.core.notifications.entity.NotificationOutboxEntity.Status.PENDING " +
+           "AND o.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByStatus(NotificationOutboxEntity.Status status);
+}
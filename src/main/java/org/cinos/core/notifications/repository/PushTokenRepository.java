@@ -1,11 +1,14 @@
 package org.cinos.core.notifications.repository;
 
 import org.cinos.core.notifications.entity.PushTokenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,37 @@ public interface PushTokenRepository extends JpaRepository<PushTokenEntity, Long
     @Query("SELECT pt FROM PushTokenEntity pt WHERE :premiumRole MEMBER OF pt.user.roles AND pt.isActive = true")
     List<PushTokenEntity> findActiveTokensForPremiumUsers(@Param("premiumRole") org.cinos.core.users.model.Role premiumRole);
 
+    @Modifying
+    @Query("UPDATE PushTokenEntity pt SET pt.isActive = false WHERE pt.token IN :tokens")
+    int deactivateByTokens(@Param("tokens") List<String> tokens);
+
+    /**
+     * Suma un rechazo INVALID_ARGUMENT; si el anterior es previo a windowStart la cuenta vuelve a empezar
+     */
+    @Modifying
+    @Query("UPDATE PushTokenEntity pt SET pt.invalidArgumentFailures = " +
+           "CASE WHEN pt.lastInvalidArgumentAt IS NULL OR pt.lastInvalidArgumentAt < :windowStart THEN 1 " +
+           "ELSE pt.invalidArgumentFailures + 1 END, pt.lastInvalidArgumentAt = :now " +
+           "WHERE pt.token IN :tokens")
+    int recordInvalidArgument(@Param("tokens") List<String> tokens, @Param("now") LocalDateTime now,
+                              @Param("windowStart") LocalDateTime windowStart);
+
+    @Modifying
+    @Query("UPDATE PushTokenEntity pt SET pt.isActive = false " +
+           "WHERE pt.token IN :tokens AND pt.isActive = true AND pt.invalidArgumentFailures >= :maxFailures")
+    int deactivateRepeatedInvalidArgument(@Param("tokens") List<String> tokens, @Param("maxFailures") int maxFailures);
+
+    @Modifying
+    @Query("UPDATE PushTokenEntity pt SET pt.lastUsedAt = :usedAt WHERE pt.token IN :tokens")
+    int updateLastUsedAt(@Param("tokens") List<String> tokens, @Param("usedAt") LocalDateTime usedAt);
+
+    @Query("SELECT pt.id FROM PushTokenEntity pt WHERE pt.lastUsedAt < :cutoff ORDER BY pt.lastUsedAt")
+    List<Long> findIdsUnusedSince(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PushTokenEntity pt WHERE pt.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
     void deleteByToken(String token);
 
     boolean existsByToken(String token);
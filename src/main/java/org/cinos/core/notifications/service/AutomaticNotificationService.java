@@ -7,12 +7,12 @@ import org.cinos.core.notifications.entity.PushTokenEntity;
 import org.cinos.core.notifications.repository.PushTokenRepository;
 import org.cinos.core.posts.entity.PostEntity;
 import org.cinos.core.users.entity.UserEntity;
-import org.cinos.core.users.repository.UserRepository;
-import org.cinos.core.users.model.Role;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,118 +22,66 @@ public class AutomaticNotificationService {
 
     private final PushNotificationService pushNotificationService;
     private final PushTokenRepository pushTokenRepository;
-    private final UserRepository userRepository;
+    private final PremiumSubscriptionIndex premiumSubscriptionIndex;
 
     /**
      * Notifica a usuarios premium sobre un nuevo post
-     * Solo envía notificaciones a usuarios que coincidan con sus preferencias
+     * Solo envía notificaciones a usuarios que coincidan con sus preferencias.
+     * Lanza IllegalStateException si no se pudo entregar a ningún token para que el outbox reintente
      */
     public void notifyNewPost(PostEntity post) {
-        try {
-            log.info("Iniciando notificación de nuevo post: {} {} (ID: {})", 
-                    post.getMake(), post.getModel(), post.getId());
-            
-            String title = "🚗 Nuevo vehículo disponible";
-            String body = String.format("Se ha publicado un nuevo %s %s", 
-                    post.getMake(), post.getModel());
-
-            Map<String, String> data = Map.of(
-                    "type", "NEW_POST",
-                    "postId", post.getId().toString(),
-                    "make", post.getMake(),
-                    "model", post.getModel()
-            );
-
-            // Obtener tokens de usuarios premium que coincidan con sus preferencias
-            List<String> matchingTokens = getPremiumTokensMatchingPreferences(post);
+        log.info("Iniciando notificación de nuevo post: {} {} (ID: {})", 
+                post.getMake(), post.getModel(), post.getId());
+        
+        String title = "🚗 Nuevo vehículo disponible";
+        String body = String.format("Se ha publicado un nuevo %s %s", 
+                post.getMake(), post.getModel());
+
+        Map<String, String> data = Map.of(
+                "type", "NEW_POST",
+                "postId", post.getId().toString(),
+                "make", post.getMake(),
+                "model", post.getModel()
+        );
+
+        // Obtener tokens de usuarios premium que coincidan con sus preferencias
+        List<String> matchingTokens = getPremiumTokensMatchingPreferences(post);
 
-            if (matchingTokens.isEmpty()) {
-                log.info("No hay usuarios premium que coincidan con las preferencias para el post: {} {} (ID: {})", 
-                        post.getMake(), post.getModel(), post.getId());
-                return;
-            }
+        if (matchingTokens.isEmpty()) {
+            log.info("No hay usuarios premium que coincidan con las preferencias para el post: {} {} (ID: {})", 
+                    post.getMake(), post.getModel(), post.getId());
+            return;
+        }
 
-            log.info("Enviando notificación a {} usuarios premium para post {} {} (ID: {})", 
-                    matchingTokens.size(), post.getMake(), post.getModel(), post.getId());
+        log.info("Enviando notificación a {} usuarios premium para post {} {} (ID: {})", 
+                matchingTokens.size(), post.getMake(), post.getModel(), post.getId());
 
-            PushNotificationRequest request = PushNotificationRequest.builder()
-                    .title(title)
-                    .body(body)
-                    .data(data)
-                    .tokens(matchingTokens)
-                    .build();
+        PushNotificationRequest request = PushNotificationRequest.builder()
+                .title(title)
+                .body(body)
+                .data(data)
+                .tokens(matchingTokens)
+                .build();
 
-            var response = pushNotificationService.sendNotificationToUsers(request);
-            
-            if (response.isSuccess()) {
-                log.info("✅ Notificación de nuevo post enviada exitosamente a {} usuarios premium", 
-                        response.getSuccessfulDeliveries());
-            } else {
-                log.error("❌ Error enviando notificación de nuevo post: {}", response.getMessage());
-            }
-        } catch (Exception e) {
-            log.error("❌ Error crítico enviando notificación de nuevo post: {}", e.getMessage(), e);
+        var response = pushNotificationService.sendNotificationToUsers(request);
+        
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Error enviando notificación de nuevo post: " + response.getMessage());
         }
+        log.info("✅ Notificación de nuevo post enviada exitosamente a {} usuarios premium", 
+                response.getSuccessfulDeliveries());
     }
 
     /**
      * Obtiene los tokens de usuarios premium que coinciden con las preferencias del post
      */
     private List<String> getPremiumTokensMatchingPreferences(PostEntity post) {
-        // Obtener todos los usuarios premium con sus tokens activos
-        List<PushTokenEntity> premiumTokens = pushTokenRepository.findActiveTokensForPremiumUsers(Role.PREMIUM);
-        
-        return premiumTokens.stream()
-                .filter(tokenEntity -> {
-                    UserEntity user = tokenEntity.getUser();
-                    
-                    // Verificar que el usuario sea realmente premium
-                    if (user.getRoles() == null || !user.getRoles().contains(Role.PREMIUM)) {
-                        log.debug("Usuario {} no es premium, saltando notificación", user.getEmail());
-                        return false;
-                    }
-                    
-                    // Si el usuario no tiene preferencias configuradas, no recibir notificaciones
-                    if (user.getPremiumNotificationBrand() == null && 
-                        user.getPremiumNotificationModel() == null && 
-                        user.getPremiumNotificationCondition() == null) {
-                        log.debug("Usuario premium {} no tiene preferencias configuradas, saltando notificación", user.getEmail());
-                        return false;
-                    }
-                    
-                    // Verificar coincidencia de marca
-                    if (user.getPremiumNotificationBrand() != null && 
-                        !user.getPremiumNotificationBrand().isEmpty() &&
-                        !user.getPremiumNotificationBrand().equals(post.getMake())) {
-                        log.debug("Usuario {} no coincide con marca preferida: {} vs {}", 
-                                user.getEmail(), user.getPremiumNotificationBrand(), post.getMake());
-                        return false;
-                    }
-                    
-                    // Verificar coincidencia de modelo
-                    if (user.getPremiumNotificationModel() != null && 
-                        !user.getPremiumNotificationModel().isEmpty() &&
-                        !user.getPremiumNotificationModel().equals(post.getModel())) {
-                        log.debug("Usuario {} no coincide con modelo preferido: {} vs {}", 
-                                user.getEmail(), user.getPremiumNotificationModel(), post.getModel());
-                        return false;
-                    }
-                    
-                    // Verificar coincidencia de condición (usado/nuevo)
-                    if (user.getPremiumNotificationCondition() != null && 
-                        !user.getPremiumNotificationCondition().isEmpty()) {
-                        String postCondition = post.getIsUsed() ? "usado" : "nuevo";
-                        if (!user.getPremiumNotificationCondition().equals(postCondition)) {
-                            log.debug("Usuario {} no coincide con condición preferida: {} vs {}", 
-                                    user.getEmail(), user.getPremiumNotificationCondition(), postCondition);
-                            return false;
-                        }
-                    }
-                    
-                    log.debug("Usuario premium {} coincide con preferencias para post {} {}", 
-                            user.getEmail(), post.getMake(), post.getModel());
-                    return true;
-                })
+        String condition = Boolean.TRUE.equals(post.getIsUsed()) ? "usado" : "nuevo";
+        Set<Long> userIds = premiumSubscriptionIndex.findMatchingUsers(post.getMake(), post.getModel(), condition);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return pushTokenRepository.findByUserIdsAndActive(new ArrayList<>(userIds)).stream()
                 .map(PushTokenEntity::getToken)
                 .collect(Collectors.toList());
     }
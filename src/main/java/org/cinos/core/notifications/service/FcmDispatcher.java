@@ -0,0 +1,268 @@
+package org.cinos.core.notifications.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.notifications.repository.PushTokenRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Envío multicast a FCM: parte la lista de tokens en bloques del máximo que acepta FCM (500),
+ * los envía con sendEachForMulticastAsync encadenando los futures (sin bloquear hilos) con a lo
+ * sumo max-concurrent-chunks bloques en vuelo, y junta el resultado por token. Los tokens que FCM
+ * reporta como dados de baja o inválidos se desactivan; los INVALID_ARGUMENT que no permiten
+ * distinguir entre token y mensaje se cuentan y desactivan el token al repetirse.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FcmDispatcher {
+
+    private final ObjectProvider<FirebaseMessaging> firebaseMessaging;
+    private final PushTokenRepository pushTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.fcm.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${notifications.fcm.max-concurrent-chunks:4}")
+    private int maxConcurrentChunks;
+
+    // Rechazos INVALID_ARGUMENT ambiguos que desactivan el token si se repiten dentro de la ventana
+    @Value("${notifications.fcm.invalid-argument-max-failures:3}")
+    private int invalidArgumentMaxFailures;
+
+    @Value("${notifications.fcm.invalid-argument-window-hours:24}")
+    private long invalidArgumentWindowHours;
+
+    // Solo para desactivar tokens: saca la escritura en base de datos de los hilos de Firebase
+    private ExecutorService cleanupExecutor;
+
+    /**
+     * Resultado del envío por token
+     */
+    public record MulticastResult(List<String> successfulTokens, List<String> failedTokens, List<String> invalidTokens) {
+
+        public int successCount() {
+            return successfulTokens.size();
+        }
+
+        public int failureCount() {
+            return failedTokens.size();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        cleanupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fcm-token-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanupExecutor.shutdown();
+    }
+
+    /**
+     * Envía la notificación a todos los tokens y espera el resultado. Solo para llamadas que
+     * necesitan el resultado en la respuesta; el resto debe usar {@link #sendAsync}.
+     */
+    public MulticastResult send(List<String> tokens, String title, String body, Map<String, String> data) {
+        return sendAsync(tokens, title, body, data).join();
+    }
+
+    /**
+     * Envía la notificación a todos los tokens sin bloquear; el future se completa cuando
+     * terminaron todos los bloques
+     */
+    public CompletableFuture<MulticastResult> sendAsync(List<String> tokens, String title, String body, Map<String, String> data) {
+        FirebaseMessaging messaging = firebaseMessaging.getIfAvailable();
+        if (messaging == null || tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(new MulticastResult(List.of(), List.copyOf(tokens), List.of()));
+        }
+
+        List<List<String>> chunks = Lists.partition(tokens, chunkSize);
+        // Cada carril envía sus bloques uno detrás de otro: como mucho maxConcurrentChunks en vuelo
+        int lanes = Math.max(1, Math.min(maxConcurrentChunks, chunks.size()));
+        List<CompletableFuture<List<ChunkResult>>> laneFutures = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<List<ChunkResult>> future = CompletableFuture.completedFuture(new ArrayList<>());
+            for (int i = lane; i < chunks.size(); i += lanes) {
+                List<String> chunk = chunks.get(i);
+                MulticastMessage message = MulticastMessage.builder()
+                        .setNotification(Notification.builder()
+                                .setTitle(title)
+                                .setBody(body)
+                                .build())
+                        .putAllData(data != null ? data : Map.of())
+                        .addAllTokens(chunk)
+                        .build();
+                future = future.thenCompose(results -> sendChunk(messaging, message, chunk)
+                        .thenApply(result -> {
+                            results.add(result);
+                            return results;
+                        }));
+            }
+            laneFutures.add(future);
+        }
+
+        return CompletableFuture.allOf(laneFutures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<String> successful = new ArrayList<>();
+                    List<String> failed = new ArrayList<>();
+                    List<String> invalid = new ArrayList<>();
+                    List<String> suspect = new ArrayList<>();
+                    for (CompletableFuture<List<ChunkResult>> lane : laneFutures) {
+                        for (ChunkResult result : lane.join()) {
+                            successful.addAll(result.successful());
+                            failed.addAll(result.failed());
+                            invalid.addAll(result.invalid());
+                            suspect.addAll(result.suspect());
+                        }
+                    }
+                    if (!invalid.isEmpty()) {
+                        cleanupExecutor.execute(() -> deactivate(invalid));
+                    }
+                    if (!suspect.isEmpty()) {
+                        cleanupExecutor.execute(() -> recordInvalidArgument(suspect));
+                    }
+                    log.info("Notificación enviada a {} tokens en {} bloques: {} exitosos, {} fallidos, {} desactivados",
+                            tokens.size(), chunks.size(), successful.size(), failed.size(), invalid.size());
+                    return new MulticastResult(successful, failed, invalid);
+                });
+    }
+
+    private CompletableFuture<ChunkResult> sendChunk(FirebaseMessaging messaging, MulticastMessage message, List<String> chunk) {
+        CompletableFuture<ChunkResult> future = new CompletableFuture<>();
+        ApiFuture<BatchResponse> response;
+        try {
+            response = messaging.sendEachForMulticastAsync(message);
+        } catch (RuntimeException e) {
+            log.error("Error enviando bloque de {} tokens: {}", chunk.size(), e.getMessage());
+            future.complete(ChunkResult.allFailed(chunk));
+            return future;
+        }
+        ApiFutures.addCallback(response, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(BatchResponse batch) {
+                future.complete(toResult(batch, chunk));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("Error enviando bloque de {} tokens: {}", chunk.size(), t.getMessage());
+                future.complete(ChunkResult.allFailed(chunk));
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private static ChunkResult toResult(BatchResponse response, List<String> chunk) {
+        List<String> successful = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        List<String> invalidArgument = new ArrayList<>();
+        List<SendResponse> responses = response.getResponses();
+        for (int i = 0; i < responses.size(); i++) {
+            String token = chunk.get(i);
+            SendResponse sendResponse = responses.get(i);
+            if (sendResponse.isSuccessful()) {
+                successful.add(token);
+                continue;
+            }
+            failed.add(token);
+            FirebaseMessagingException exception = sendResponse.getException();
+            MessagingErrorCode errorCode = errorCode(exception);
+            if (errorCode == MessagingErrorCode.UNREGISTERED) {
+                invalid.add(token);
+            } else if (errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
+                if (blamesToken(exception)) {
+                    invalid.add(token);
+                } else {
+                    invalidArgument.add(token);
+                }
+            }
+        }
+        // Si todo el bloque falla con INVALID_ARGUMENT sin culpar al token, el problema puede ser el mensaje:
+        // no se desactiva en el momento, solo se cuenta (los bloques de un token, como el chat, caen siempre acá)
+        if (invalidArgument.size() < chunk.size()) {
+            invalid.addAll(invalidArgument);
+            return new ChunkResult(successful, failed, invalid, List.of());
+        }
+        return new ChunkResult(successful, failed, invalid, invalidArgument);
+    }
+
+    /**
+     * FCM indica en el mensaje cuando el INVALID_ARGUMENT se debe al token de registro y no al payload
+     */
+    private static boolean blamesToken(FirebaseMessagingException exception) {
+        String message = exception.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("registration token");
+    }
+
+    private static MessagingErrorCode errorCode(FirebaseMessagingException exception) {
+        return exception != null ? exception.getMessagingErrorCode() : null;
+    }
+
+    private void recordInvalidArgument(List<String> tokens) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer deactivated = transactionTemplate.execute(status -> {
+                pushTokenRepository.recordInvalidArgument(tokens, now, now.minusHours(invalidArgumentWindowHours));
+                return pushTokenRepository.deactivateRepeatedInvalidArgument(tokens, invalidArgumentMaxFailures);
+            });
+            if (deactivated != null && deactivated > 0) {
+                log.info("Desactivados {} tokens tras {} rechazos INVALID_ARGUMENT", deactivated, invalidArgumentMaxFailures);
+            }
+        } catch (Exception e) {
+            log.error("No se pudieron registrar rechazos de {} tokens: {}", tokens.size(), e.getMessage());
+        }
+    }
+
+    private void deactivate(List<String> tokens) {
+        try {
+            Integer updated = transactionTemplate.execute(status -> pushTokenRepository.deactivateByTokens(tokens));
+            log.info("Desactivados {} tokens rechazados por FCM", updated);
+        } catch (Exception e) {
+            log.error("No se pudieron desactivar {} tokens inválidos: {}", tokens.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Resultado de un bloque; suspect son los tokens con INVALID_ARGUMENT ambiguo
+     */
+    private record ChunkResult(List<String> successful, List<String> failed, List<String> invalid, List<String> suspect) {
+
+        static ChunkResult allFailed(List<String> chunk) {
+            return new ChunkResult(List.of(), chunk, List.of(), List.of());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
@@ -16,6 +17,9 @@ public class FirebaseService {
     @Autowired(required = false)
     private FirebaseMessaging firebaseMessaging;
 
+    @Autowired
+    private FcmDispatcher fcmDispatcher;
+
     @PostConstruct
     public void initialize() {
         if (firebaseMessaging != null) {
@@ -25,31 +29,26 @@ public class FirebaseService {
         }
     }
 
-    public BatchResponse sendNotificationToTokens(List<String> tokens, String title, String body, Map<String, String> data) {
+    /**
+     * Envía la notificación a los tokens en bloques concurrentes; null si Firebase no está disponible
+     */
+    public FcmDispatcher.MulticastResult sendNotificationToTokens(List<String> tokens, String title, String body, Map<String, String> data) {
         if (firebaseMessaging == null) {
             log.warn("Firebase no está disponible. No se pueden enviar notificaciones push.");
             return null;
         }
+        return fcmDispatcher.send(tokens, title, body, data);
+    }
 
-        try {
-            MulticastMessage message = MulticastMessage.builder()
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build())
-                    .putAllData(data != null ? data : Map.of())
-                    .addAllTokens(tokens)
-                    .build();
-
-            BatchResponse response = firebaseMessaging.sendMulticast(message);
-            log.info("Notificación enviada a {} tokens, {} exitosos, {} fallidos", 
-                    tokens.size(), response.getSuccessCount(), response.getFailureCount());
-
-            return response;
-        } catch (FirebaseMessagingException e) {
-            log.error("Error enviando notificación: {}", e.getMessage());
-            throw new RuntimeException("Error enviando notificación push", e);
+    /**
+     * Igual que {@link #sendNotificationToTokens} pero sin bloquear; null si Firebase no está disponible
+     */
+    public CompletableFuture<FcmDispatcher.MulticastResult> sendNotificationToTokensAsync(List<String> tokens, String title, String body, Map<String, String> data) {
+        if (firebaseMessaging == null) {
+            log.warn("Firebase no está disponible. No se pueden enviar notificaciones push.");
+            return null;
         }
+        return fcmDispatcher.sendAsync(tokens, title, body, data);
     }
 
     public String sendNotificationToTopic(String topic, String title, String body, Map<String, String> data) {
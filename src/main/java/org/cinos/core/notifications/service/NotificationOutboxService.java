@@ -0,0 +1,215 @@
+package org.cinos.core.notifications.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.notifications.dto.PushNotificationRequest;
+import org.cinos.core.notifications.entity.NotificationOutboxEntity;
+import org.cinos.core.notifications.repository.NotificationOutboxRepository;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox de notificaciones push: las notificaciones se registran en la transacción del cambio
+ * que las origina y un proceso programado las envía con concurrencia acotada. Los fallos se
+ * reintentan con espera exponencial y, agotados los intentos, la fila queda como DEAD.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final PostRepository postRepository;
+    private final AutomaticNotificationService automaticNotificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer drainTimer;
+
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.base-backoff-ms:5000}")
+    private long baseBackoffMs;
+
+    @Value("${notifications.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${notifications.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private ExecutorService executor;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     PostRepository postRepository,
+                                     AutomaticNotificationService automaticNotificationService,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.postRepository = postRepository;
+        this.automaticNotificationService = automaticNotificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.sent = Counter.builder("notifications.outbox.sent")
+                .description("Notificaciones del outbox enviadas")
+                .register(meterRegistry);
+        this.retried = Counter.builder("notifications.outbox.retried")
+                .description("Envíos fallidos reprogramados")
+                .register(meterRegistry);
+        this.dead = Counter.builder("notifications.outbox.dead")
+                .description("Notificaciones que agotaron los reintentos")
+                .register(meterRegistry);
+        this.drainTimer = Timer.builder("notifications.outbox.drain")
+                .description("Duración del envío de cada notificación del outbox")
+                .register(meterRegistry);
+        meterRegistry.gauge("notifications.outbox.backlog", backlog);
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Registra la notificación de nuevo post; se debe llamar dentro de la transacción que publica el post
+     */
+    public void enqueueNewPost(Long postId) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(NotificationOutboxEntity.builder()
+                .type(PushNotificationRequest.NotificationType.NEW_POST)
+                .referenceId(postId)
+                .status(NotificationOutboxEntity.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Toma como mucho tantas filas vencidas como hilos libres haya, las reserva por un tiempo para que
+     * otra instancia no las repita y las entrega al pool sin esperar el resultado; una fila reservada
+     * por una instancia que se cae vuelve a vencer al terminar la reserva
+     */
+    @Scheduled(initialDelayString = "${notifications.outbox.poll-ms:1000}", fixedDelayString = "${notifications.outbox.poll-ms:1000}")
+    public void drain() {
+        backlog.set(outboxRepository.countByStatus(NotificationOutboxEntity.Status.PENDING));
+        int free = maxConcurrency - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        List<Long> due = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, Math.min(batchSize, free)));
+
+        for (Long id : due) {
+            // La reserva empieza cuando la fila se entrega a un hilo libre, no al leer el lote
+            LocalDateTime now = LocalDateTime.now();
+            Integer claimed = transactionTemplate.execute(status -> outboxRepository.claim(id, now, now.plusSeconds(leaseSeconds)));
+            if (claimed == null || claimed != 1) {
+                continue;
+            }
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        drainTimer.record(() -> dispatch(id));
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Solo al apagar: la fila vuelve a vencer al terminar la reserva
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(Long id) {
+        NotificationOutboxEntity entry = outboxRepository.findById(id).orElse(null);
+        if (entry == null) {
+            return;
+        }
+        try {
+            deliver(entry);
+            outboxRepository.delete(entry);
+            sent.increment();
+        } catch (Exception e) {
+            fail(entry, e);
+        }
+    }
+
+    private void deliver(NotificationOutboxEntity entry) {
+        switch (entry.getType()) {
+            case NEW_POST -> {
+                PostEntity post = postRepository.findById(entry.getReferenceId()).orElse(null);
+                if (post == null || !Boolean.TRUE.equals(post.getActive())) {
+                    log.info("Post {} ya no está activo, se descarta su notificación", entry.getReferenceId());
+                    return;
+                }
+                automaticNotificationService.notifyNewPost(post);
+            }
+            default -> throw new IllegalStateException("Tipo de notificación no soportado en el outbox: " + entry.getType());
+        }
+    }
+
+    private void fail(NotificationOutboxEntity entry, Exception e) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage());
+        if (attempts >= maxAttempts) {
+            entry.setStatus(NotificationOutboxEntity.Status.DEAD);
+            dead.increment();
+            log.error("Notificación {} {} descartada tras {} intentos: {}",
+                    entry.getType(), entry.getReferenceId(), attempts, e.getMessage());
+        } else {
+            Duration delay = backoff(attempts, baseBackoffMs, maxBackoffMs);
+            entry.setNextAttemptAt(LocalDateTime.now().plus(delay));
+            retried.increment();
+            log.warn("Error enviando notificación {} {} (intento {}), se reintenta en {} s: {}",
+                    entry.getType(), entry.getReferenceId(), attempts, delay.toSeconds(), e.getMessage());
+        }
+        outboxRepository.save(entry);
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos - 1), con tope
+     */
+    static Duration backoff(int attempts, long baseMs, long maxMs) {
+        long delay = baseMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxMs));
+    }
+}
@@ -0,0 +1,158 @@
+package org.cinos.core.notifications.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.users.model.Role;
+import org.cinos.core.users.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria de las preferencias de notificación de los usuarios premium, por
+ * (marca, modelo, condición); una preferencia vacía funciona como comodín.
+ * Para un post se consultan solo las combinaciones exacto/comodín de sus tres valores,
+ * así que el costo depende de los usuarios que coinciden y no del total de premium.
+ * Se arma al arrancar, se actualiza al confirmarse un cambio de preferencias o del rol premium
+ * y se reconstruye periódicamente para tomar cambios hechos en otras instancias; los cambios
+ * aplicados mientras se reconstruye se vuelven a aplicar sobre el índice nuevo.
+ */
+@Slf4j
+@Component
+public class PremiumSubscriptionIndex {
+
+    private static final String ANY = "*";
+
+    private final UserRepository userRepository;
+    private Map<SubscriptionKey, Set<Long>> usersByKey = new HashMap<>();
+    private Map<Long, SubscriptionKey> keyByUser = new HashMap<>();
+    // Cambios aplicados durante una reconstrucción (null = el usuario sale del índice); null si no hay una en curso
+    private Map<Long, SubscriptionKey> updatesDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    public PremiumSubscriptionIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notifications.premium-index.rebuild-ms:600000}",
+            fixedDelayString = "${notifications.premium-index.rebuild-ms:600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                updatesDuringRebuild = new HashMap<>();
+            }
+            try {
+                Map<SubscriptionKey, Set<Long>> newUsersByKey = new HashMap<>();
+                Map<Long, SubscriptionKey> newKeyByUser = new HashMap<>();
+                for (Object[] row : userRepository.findPremiumNotificationPreferences(Role.PREMIUM)) {
+                    SubscriptionKey key = SubscriptionKey.of((String) row[1], (String) row[2], (String) row[3]);
+                    if (key != null) {
+                        newUsersByKey.computeIfAbsent(key, k -> new HashSet<>()).add((Long) row[0]);
+                        newKeyByUser.put((Long) row[0], key);
+                    }
+                }
+                synchronized (this) {
+                    usersByKey = newUsersByKey;
+                    keyByUser = newKeyByUser;
+                    // La lectura pudo no ver cambios confirmados mientras se armaba
+                    updatesDuringRebuild.forEach(this::apply);
+                }
+                log.info("Índice de suscripciones premium armado: {} usuarios con preferencias", newKeyByUser.size());
+            } finally {
+                synchronized (this) {
+                    updatesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Refleja el estado actual del usuario: entra si es premium y tiene preferencias, si no sale.
+     * Dentro de una transacción se aplica al confirmarla, con el estado tomado en este momento
+     */
+    public void update(UserEntity user) {
+        Long userId = user.getId();
+        boolean premium = user.getRoles() != null && user.getRoles().contains(Role.PREMIUM);
+        SubscriptionKey key = premium ? SubscriptionKey.of(user.getPremiumNotificationBrand(),
+                user.getPremiumNotificationModel(), user.getPremiumNotificationCondition()) : null;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyUpdate(userId, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyUpdate(userId, key);
+            }
+        });
+    }
+
+    private synchronized void applyUpdate(Long userId, SubscriptionKey key) {
+        apply(userId, key);
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.put(userId, key);
+        }
+    }
+
+    private void apply(Long userId, SubscriptionKey key) {
+        remove(userId);
+        if (key != null) {
+            usersByKey.computeIfAbsent(key, k -> new HashSet<>()).add(userId);
+            keyByUser.put(userId, key);
+        }
+    }
+
+    /**
+     * Usuarios premium cuyas preferencias coinciden con marca, modelo y condición del post
+     */
+    public synchronized Set<Long> findMatchingUsers(String make, String model, String condition) {
+        Set<Long> matches = new HashSet<>();
+        for (String brandKey : List.of(normalize(make), ANY)) {
+            for (String modelKey : List.of(normalize(model), ANY)) {
+                for (String conditionKey : List.of(normalize(condition), ANY)) {
+                    Set<Long> users = usersByKey.get(new SubscriptionKey(brandKey, modelKey, conditionKey));
+                    if (users != null) {
+                        matches.addAll(users);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void remove(Long userId) {
+        SubscriptionKey previous = keyByUser.remove(userId);
+        if (previous != null) {
+            Set<Long> users = usersByKey.get(previous);
+            users.remove(userId);
+            if (users.isEmpty()) {
+                usersByKey.remove(previous);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? ANY : value;
+    }
+
+    private record SubscriptionKey(String brand, String model, String condition) {
+
+        /**
+         * Clave de las preferencias del usuario, o null si no configuró ninguna
+         */
+        static SubscriptionKey of(String brand, String model, String condition) {
+            SubscriptionKey key = new SubscriptionKey(normalize(brand), normalize(model), normalize(condition));
+            return ANY.equals(key.brand()) && ANY.equals(key.model()) && ANY.equals(key.condition()) ? null : key;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.cinos.core.notifications.service;
 
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.cinos.core.notifications.dto.PushNotificationRequest;
@@ -9,7 +10,11 @@ import org.cinos.core.notifications.repository.PushTokenRepository;
 import org.cinos.core.users.entity.UserEntity;
 import org.cinos.core.users.repository.UserRepository;
 import org.cinos.core.users.model.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,6 +30,13 @@ public class PushNotificationService {
     private final PushTokenRepository pushTokenRepository;
     private final UserRepository userRepository;
     private final FirebaseService firebaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.tokens.batch-size:500}")
+    private int tokenBatchSize;
+
+    @Value("${notifications.tokens.retention-days:30}")
+    private int tokenRetentionDays;
 
     /**
      * Registra un token de notificación para un usuario
@@ -121,15 +133,15 @@ public class PushNotificationService {
             }
 
             // Enviar notificación
-            var batchResponse = firebaseService.sendNotificationToTokens(
+            var result = firebaseService.sendNotificationToTokens(
                     tokens,
                     request.getTitle(),
                     request.getBody(),
                     request.getData()
             );
 
-            // Si Firebase no está disponible, batchResponse será null
-            if (batchResponse == null) {
+            // Si Firebase no está disponible, result será null
+            if (result == null) {
                 return PushNotificationResponse.builder()
                         .success(false)
                         .message("Firebase no está disponible")
@@ -140,15 +152,16 @@ public class PushNotificationService {
             }
 
             // Actualizar lastUsedAt para tokens exitosos
-            updateLastUsedAt(tokens);
+            updateLastUsedAt(result.successfulTokens());
 
             return PushNotificationResponse.builder()
-                    .success(true)
-                    .message("Notificación enviada exitosamente")
+                    .success(result.successCount() > 0)
+                    .message(result.successCount() > 0 ? "Notificación enviada exitosamente" : "No se pudo entregar la notificación")
                     .totalTokens(tokens.size())
-                    .successfulDeliveries((int) batchResponse.getSuccessCount())
-                    .failedDeliveries((int) batchResponse.getFailureCount())
-                    .successfulTokens(tokens) // En una implementación real, deberías filtrar los exitosos
+                    .successfulDeliveries(result.successCount())
+                    .failedDeliveries(result.failureCount())
+                    .successfulTokens(result.successfulTokens())
+                    .failedTokens(result.failedTokens())
                     .build();
 
         } catch (Exception e) {
@@ -185,31 +198,32 @@ public class PushNotificationService {
     }
 
     /**
-     * Actualiza el lastUsedAt de los tokens
+     * Actualiza el lastUsedAt de los tokens con un UPDATE por bloque
      */
     private void updateLastUsedAt(List<String> tokens) {
-        tokens.forEach(token -> {
-            pushTokenRepository.findByToken(token).ifPresent(pushToken -> {
-                pushToken.setLastUsedAt(LocalDateTime.now());
-                pushTokenRepository.save(pushToken);
-            });
-        });
+        LocalDateTime now = LocalDateTime.now();
+        for (List<String> chunk : Lists.partition(tokens, tokenBatchSize)) {
+            transactionTemplate.executeWithoutResult(status -> pushTokenRepository.updateLastUsedAt(chunk, now));
+        }
     }
 
     /**
-     * Limpia tokens inactivos (más de 30 días sin uso)
+     * Borra por lotes los tokens sin uso en los últimos días configurados,
+     * cada lote en su propia transacción para no bloquear la tabla
      */
+    @Scheduled(cron = "${notifications.tokens.cleanup-cron:0 30 4 * * *}")
     public void cleanupInactiveTokens() {
         try {
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            List<PushTokenEntity> inactiveTokens = pushTokenRepository.findAll().stream()
-                    .filter(token -> token.getLastUsedAt() != null && token.getLastUsedAt().isBefore(thirtyDaysAgo))
-                    .collect(Collectors.toList());
-
-            pushTokenRepository.deleteAll(inactiveTokens);
-            log.info("Eliminados {} tokens inactivos", inactiveTokens.size());
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(tokenRetentionDays);
+            int deleted = 0;
+            List<Long> ids;
+            while (!(ids = pushTokenRepository.findIdsUnusedSince(cutoff, PageRequest.of(0, tokenBatchSize))).isEmpty()) {
+                List<Long> batch = ids;
+                deleted += transactionTemplate.execute(status -> pushTokenRepository.deleteByIds(batch));
+            }
+            log.info("Eliminados {} tokens inactivos", deleted);
         } catch (Exception e) {
             log.error("Error limpiando tokens inactivos: {}", e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package org.cinos.core.posts.controller;
 
 import org.cinos.core.posts.controller.request.PostCreateRequest;
 import org.cinos.core.posts.dto.*;
+import org.cinos.core.posts.models.FeedEngineType;
 import org.cinos.core.posts.service.ICommentService;
 import org.cinos.core.posts.service.IMakeService;
 import org.cinos.core.posts.service.IModelService;
@@ -59,26 +60,52 @@ public class PostController {
         return ResponseEntity.ok(postService.getPostsFilter(postFilterDTO));
     }
 
+    @PostMapping("/filter/cursor")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getPostsFilterCursor(@RequestBody final PostFilterDTO postFilterDTO) {
+        return ResponseEntity.ok(postService.getPostsFilterCursor(postFilterDTO));
+    }
+
+    /**
+     * Feed paginado por offset. Con el motor PRECOMPUTED la profundidad está acotada a posts.feed.candidate-limit
+     * publicaciones (totalElements informa ese tope); para recorrer más allá usar /feed/{userId}/cursor
+     */
     @GetMapping("/feed/{userId}")
     public ResponseEntity<Page<PostFeedDTO>> getFeedPosts(@PathVariable final Long userId,
                                                           @RequestParam final Integer page,
                                                           @RequestParam final Integer size,
                                                           @RequestParam final Double latitude,
-                                                          @RequestParam final Double longitude) {
+                                                          @RequestParam final Double longitude,
+                                                          @RequestParam(required = false) final FeedEngineType engine) {
         ResponseEntity<Page<PostFeedDTO>> result = null;
         try {
-            result = ResponseEntity.ok(postService.getFeedPosts(userId, PageRequest.of(page, size), latitude, longitude));
+            result = ResponseEntity.ok(postService.getFeedPosts(userId, PageRequest.of(page, size), latitude, longitude, engine));
         } catch (UserNotFoundException e) {
             log.info(e.getMessage());
         }
         return result;
     }
 
+    @GetMapping("/feed/{userId}/cursor")
+    public ResponseEntity<CursorPageDTO<PostFeedDTO>> getFeedPostsCursor(@PathVariable final Long userId,
+                                                                         @RequestParam(required = false) final String cursor,
+                                                                         @RequestParam(required = false) final Integer size,
+                                                                         @RequestParam final Double latitude,
+                                                                         @RequestParam final Double longitude) throws UserNotFoundException {
+        return ResponseEntity.ok(postService.getFeedPostsCursor(userId, cursor, size, latitude, longitude));
+    }
+
     @GetMapping("/followings/{userId}")
     public ResponseEntity<Page<PostDTO>> getFollowingsPosts(@PathVariable final Long userId, @RequestParam final Integer page, @RequestParam final Integer size) throws UserNotFoundException {
         return ResponseEntity.ok(postService.getFollowingsPosts(userId, PageRequest.of(page, size)));
     }
 
+    @GetMapping("/followings/{userId}/cursor")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getFollowingsPostsCursor(@PathVariable final Long userId,
+                                                                           @RequestParam(required = false) final String cursor,
+                                                                           @RequestParam(required = false) final Integer size) throws UserNotFoundException {
+        return ResponseEntity.ok(postService.getFollowingsPostsCursor(userId, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PostDTO> getPostById(@PathVariable final Long id) throws PostNotFoundException {
         return ResponseEntity.ok(postService.getById(id));
@@ -110,6 +137,16 @@ public class PostController {
         return ResponseEntity.ok(postService.createPost(post, images));
     }
 
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, value = "/create-async")
+    public ResponseEntity<PostDTO> createPostAsync(
+            @RequestParam("post") final String request,
+            @RequestParam("images") final List<MultipartFile> images) throws IOException, UserNotFoundException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PostCreateRequest post = objectMapper.readValue(request, PostCreateRequest.class);
+        return ResponseEntity.accepted().body(postService.createPostAsync(post, images));
+    }
+
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @PostMapping("/account/{userId}/save-post/{postId}")
     public ResponseEntity<Object> saveUserPost(@PathVariable final Long userId, @PathVariable final Long postId) throws UserNotFoundException, PostNotFoundException {
@@ -264,11 +301,10 @@ public class PostController {
                 return ResponseEntity.badRequest().build();
             }
 
-            // Procesar la imagen con múltiples resoluciones
-            Map<String, String> imageResolutions = imageProcessingService.processImageWithMultipleResolutions(image);
-            
-            // Obtener información de la imagen
-            ImageProcessingService.ImageInfo imageInfo = imageProcessingService.getImageInfo(image);
+            // Procesar la imagen con múltiples resoluciones (decodifica una sola vez)
+            ImageProcessingService.ProcessedImage processed = imageProcessingService.processImage(image);
+            Map<String, String> imageResolutions = processed.urls();
+            ImageProcessingService.ImageInfo imageInfo = processed.info();
             
             ImageProcessingResponse response = ImageProcessingResponse.builder()
                     .originalUrl(imageResolutions.get("original"))
@@ -0,0 +1,12 @@
+package org.cinos.core.posts.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record CursorPageDTO<T>(
+        List<T> content,
+        String nextCursor,
+        Boolean hasNext) {
+}
@@ -30,5 +30,8 @@ public record PostDTO(
         String motor,
         String traccion,
         String userPhone,
-        String userAttentionHours) {
+        String userAttentionHours,
+        Long commentCount,
+        String publicationStatus,
+        List<PostImageDTO> images) {
 }
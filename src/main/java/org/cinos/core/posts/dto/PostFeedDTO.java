@@ -22,5 +22,6 @@ public record PostFeedDTO(
         String kilometers,
         List<String> imagesUrls,
         Boolean isVerified,
-        Boolean isApproved) {
+        Boolean isApproved,
+        Long commentCount) {
 }
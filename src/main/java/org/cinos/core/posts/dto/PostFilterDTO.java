@@ -16,6 +16,7 @@ public record PostFilterDTO(
         Integer maxMileage,
         Boolean isUsed,
         Integer page,
-        Integer size
+        Integer size,
+        String cursor
 ) {
 }
@@ -2,5 +2,10 @@ package org.cinos.core.posts.dto;
 
 public record PostImageDTO(
         Long id,
-        String url) {
+        String url,
+        String mediumUrl,
+        String thumbnailUrl,
+        String smallUrl,
+        Integer width,
+        Integer height) {
 }
@@ -0,0 +1,10 @@
+package org.cinos.core.posts.dto;
+
+import java.time.LocalDateTime;
+
+public record PostScoreSourceDTO(
+        Long id,
+        LocalDateTime publicationDate,
+        Boolean isVerified,
+        Long commentCount) {
+}
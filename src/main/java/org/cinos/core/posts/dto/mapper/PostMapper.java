@@ -1,6 +1,7 @@
 package org.cinos.core.posts.dto.mapper;
 
 import org.cinos.core.posts.dto.PostDTO;
+import org.cinos.core.posts.dto.PostImageDTO;
 import org.cinos.core.posts.dto.PostLocationDTO;
 import org.cinos.core.posts.entity.*;
 import org.cinos.core.users.entity.AccountEntity;
@@ -28,14 +29,18 @@ public interface PostMapper {
     @Mapping(source = "publicationDate", target = "publicationDate", qualifiedByName = "mapPublicationDate")
     PostDTO toDTO(PostEntity post);
     PostLocationDTO toLocationDTO(PostLocationEntity location);
+    PostImageDTO toImageDTO(PostImageEntity image);
 
+    /**
+     * URLs para detalle y feed: variante mediana, o la original si la imagen aún no tiene variantes
+     */
     @Named("mapImages")
     default List<String> mapImages(List<PostImageEntity> images) {
         if (images == null) {
             return new ArrayList<>();
         }
         return images.stream()
-                .map(PostImageEntity::getUrl)
+                .map(image -> image.getMediumUrl() != null ? image.getMediumUrl() : image.getUrl())
                 .toList();
     }
 
@@ -3,7 +3,9 @@ package org.cinos.core.posts.entity;
 import org.cinos.core.posts.models.CurrencySymbol;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.cinos.core.posts.models.DocumentationStatus;
+import org.cinos.core.posts.models.PublicationStatus;
 import org.cinos.core.posts.models.VerificationStatus;
 import org.cinos.core.technical_verification.entity.TechnicalVerification;
 import org.cinos.core.users.entity.AccountEntity;
@@ -20,7 +22,20 @@ import java.util.List;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "POSTS")
+@NamedEntityGraph(
+        name = "PostEntity.listing",
+        attributeNodes = {
+                @NamedAttributeNode(value = "userAccount", subgraph = "account"),
+                @NamedAttributeNode("location"),
+                @NamedAttributeNode("technicalVerification")
+        },
+        subgraphs = @NamedSubgraph(name = "account", attributeNodes = @NamedAttributeNode("user"))
+)
+@Table(name = "POSTS", indexes = {
+        @Index(name = "idx_posts_active_base_score", columnList = "active, base_score"),
+        @Index(name = "idx_posts_active_publication_date", columnList = "active, publication_date"),
+        @Index(name = "idx_posts_publication_status_date", columnList = "publication_status, publication_date")
+})
 public class PostEntity implements Serializable {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,6 +56,8 @@ public class PostEntity implements Serializable {
     @JoinColumn(name = "account_id", nullable = false)
     private AccountEntity userAccount;
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @OrderBy("position ASC, id ASC")
     private List<PostImageEntity> images = new ArrayList<>();
     private Boolean active;
     @ManyToMany
@@ -62,5 +79,15 @@ public class PostEntity implements Serializable {
     private String traccion;
     @ManyToMany(mappedBy = "unlockedTechnicalVerifications")
     private List<UserEntity> usersWithUnlockedVerification = new ArrayList<>();
+    @Column(name = "comment_count", nullable = false, columnDefinition = "bigint default 0")
+    private Long commentCount = 0L;
+    @Column(name = "base_score")
+    private Double baseScore;
+    @Column(name = "score_updated_at")
+    private LocalDateTime scoreUpdatedAt;
+    // Estado de la publicación asíncrona (null en posts previos = publicado)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "publication_status")
+    private PublicationStatus publicationStatus;
 
 }
@@ -3,6 +3,8 @@ package org.cinos.core.posts.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Builder
 @AllArgsConstructor
@@ -12,7 +14,24 @@ import lombok.*;
 public class PostImageEntity {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // URL de la variante original (hasta 4K)
     private String url;
+    @Column(name = "medium_url")
+    private String mediumUrl;
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+    @Column(name = "small_url")
+    private String smallUrl;
+    // Dimensiones de la variante original
+    private Integer width;
+    private Integer height;
+    // Orden de la imagen dentro del post (0 = portada)
+    private Integer position;
+    // Backfill de variantes: intentos realizados y reserva del nodo que la está procesando
+    @Column(name = "variant_attempts", nullable = false)
+    private int variantAttempts;
+    @Column(name = "variant_claimed_until")
+    private LocalDateTime variantClaimedUntil;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private PostEntity post;
@@ -0,0 +1,7 @@
+package org.cinos.core.posts.events;
+
+import lombok.Builder;
+
+@Builder
+public record CommentCreateEvent(Long userId, Long postId) {
+}
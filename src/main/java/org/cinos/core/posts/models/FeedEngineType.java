@@ -0,0 +1,5 @@
+package org.cinos.core.posts.models;
+
+public enum FeedEngineType {
+    SPEC, PRECOMPUTED
+}
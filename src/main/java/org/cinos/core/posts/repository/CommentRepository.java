@@ -4,10 +4,16 @@ import org.cinos.core.posts.entity.CommentEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     List<CommentEntity> findByPostId(Long postId);
     Page<CommentEntity> findByPostId(Long postId, Pageable pageable);
+    long countByPostId(Long postId);
+
+    @Query("SELECT c.postId, COUNT(c) FROM CommentEntity c WHERE c.postId IN :postIds GROUP BY c.postId")
+    List<Object[]> countByPostIds(@Param("postIds") List<Long> postIds);
 }
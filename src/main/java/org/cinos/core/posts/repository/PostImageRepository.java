@@ -1,7 +1,43 @@
 package org.cinos.core.posts.repository;
 
 import org.cinos.core.posts.entity.PostImageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface PostImageRepository extends JpaRepository<PostImageEntity, Long> {
+
+    // Imágenes previas a las variantes (solo tienen la URL original), recorridas por id,
+    // sin las que agotaron sus intentos ni las reservadas por otro nodo
+    @Query("SELECT i FROM PostImageEntity i WHERE i.id > :lastId AND i.mediumUrl IS NULL AND i.variantAttempts < :maxAttempts " +
+            "AND (i.variantClaimedUntil IS NULL OR i.variantClaimedUntil < :now) ORDER BY i.id")
+    List<PostImageEntity> findBackfillCandidates(@Param("lastId") Long lastId,
+                                                 @Param("maxAttempts") int maxAttempts,
+                                                 @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    // Reserva condicional: cuenta el intento y solo la toma si nadie más la tiene
+    @Modifying
+    @Query("UPDATE PostImageEntity i SET i.variantAttempts = i.variantAttempts + 1, i.variantClaimedUntil = :claimedUntil " +
+            "WHERE i.id = :id AND i.mediumUrl IS NULL AND i.variantAttempts < :maxAttempts " +
+            "AND (i.variantClaimedUntil IS NULL OR i.variantClaimedUntil < :now)")
+    int claimForBackfill(@Param("id") Long id,
+                         @Param("maxAttempts") int maxAttempts,
+                         @Param("now") LocalDateTime now,
+                         @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query("UPDATE PostImageEntity i SET i.mediumUrl = :mediumUrl, i.thumbnailUrl = :thumbnailUrl, i.smallUrl = :smallUrl, " +
+            "i.width = :width, i.height = :height, i.variantClaimedUntil = NULL WHERE i.id = :id")
+    int updateVariants(@Param("id") Long id,
+                       @Param("mediumUrl") String mediumUrl,
+                       @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("smallUrl") String smallUrl,
+                       @Param("width") Integer width,
+                       @Param("height") Integer height);
 }
@@ -1,22 +1,52 @@
 package org.cinos.core.posts.repository;
 
+import org.cinos.core.posts.dto.PostProfileDTO;
+import org.cinos.core.posts.dto.PostScoreSourceDTO;
 import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.models.PublicationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<PostEntity, Long>, JpaSpecificationExecutor<PostEntity> {
 
+    // Subconsulta JPQL: id de la portada del post p (menor posición; las imágenes previas sin posición cuentan como 0)
+    String FIRST_IMAGE_ID = "(SELECT MIN(i2.id) FROM PostImageEntity i2 WHERE i2.post = p AND COALESCE(i2.position, 0) = " +
+            "(SELECT MIN(COALESCE(i3.position, 0)) FROM PostImageEntity i3 WHERE i3.post = p))";
+
     List<PostEntity> findByUserAccount_Id(Long userId);
     List<PostEntity> findAllByUserAccount_IdAndActiveTrue(Long userId);
-    Page<PostEntity> findAllByUserAccount_IdInOrderByPublicationDateDesc(List<Long> usersId, Pageable pageable);
+    @EntityGraph("PostEntity.listing")
+    Page<PostEntity> findAllByUserAccount_IdInAndActiveTrueOrderByPublicationDateDesc(List<Long> usersId, Pageable pageable);
     <T> List<T>  findByUsersSaved_Id(Long userId);
 
+    // Grillas de perfil: id del post y miniatura de la portada (menor posición, luego menor id) en una sola consulta
+    @Query("SELECT new org.cinos.core.posts.dto.PostProfileDTO(p.id, COALESCE(i.thumbnailUrl, i.url)) FROM PostEntity p LEFT JOIN p.images i " +
+            "WHERE p.userAccount.id = :accountId AND p.active = true AND (i IS NULL OR i.id = " + FIRST_IMAGE_ID + ") " +
+            "ORDER BY p.id")
+    List<PostProfileDTO> findProfileGridByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT new org.cinos.core.posts.dto.PostProfileDTO(p.id, COALESCE(i.thumbnailUrl, i.url)) FROM PostEntity p JOIN p.usersSaved a LEFT JOIN p.images i " +
+            "WHERE a.id = :accountId AND (i IS NULL OR i.id = " + FIRST_IMAGE_ID + ") " +
+            "ORDER BY p.id")
+    List<PostProfileDTO> findSavedProfileGridByAccountId(@Param("accountId") Long accountId);
+
+    // Listados paginados (feed y filtro): cuenta, usuario, ubicación y verificación en la misma consulta
+    @Override
+    @EntityGraph("PostEntity.listing")
+    Page<PostEntity> findAll(Specification<PostEntity> spec, Pageable pageable);
+
     // Métodos de búsqueda para posts
+    @EntityGraph("PostEntity.listing")
     @Query("SELECT p FROM PostEntity p WHERE p.active = true AND " +
            "(LOWER(p.make) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(p.model) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -27,4 +57,89 @@ public interface PostRepository extends JpaRepository<PostEntity, Long>, JpaSpec
            "LOWER(p.traccion) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<PostEntity> searchPosts(@Param("query") String query);
 
+    // Motor de feed precalculado: candidatos acotados por el score base materializado
+    @EntityGraph("PostEntity.listing")
+    List<PostEntity> findByActiveTrueAndUserAccount_IdNotOrderByBaseScoreDescIdDesc(Long accountId, Pageable pageable);
+    @EntityGraph("PostEntity.listing")
+    List<PostEntity> findByActiveTrueAndUserAccount_IdInOrderByPublicationDateDesc(List<Long> accountIds, Pageable pageable);
+
+    // Feed por cursor: keyset sobre (base_score, id) guardados, resuelto con idx_posts_active_base_score
+    @EntityGraph("PostEntity.listing")
+    List<PostEntity> findByActiveTrueAndBaseScoreNotNullAndUserAccount_IdNotOrderByBaseScoreDescIdDesc(Long accountId, Pageable pageable);
+    @EntityGraph("PostEntity.listing")
+    @Query("SELECT p FROM PostEntity p WHERE p.active = true AND p.baseScore IS NOT NULL AND p.userAccount.id <> :accountId AND " +
+           "(p.baseScore < :baseScore OR (p.baseScore = :baseScore AND p.id < :id)) " +
+           "ORDER BY p.baseScore DESC, p.id DESC")
+    List<PostEntity> findFeedAfter(
+        @Param("accountId") Long accountId,
+        @Param("baseScore") Double baseScore,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query("SELECT new org.cinos.core.posts.dto.PostScoreSourceDTO(p.id, p.publicationDate, p.isVerified, p.commentCount) " +
+           "FROM PostEntity p WHERE p.active = true AND p.id > :lastId ORDER BY p.id")
+    List<PostScoreSourceDTO> findScoreSources(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT new org.cinos.core.posts.dto.PostScoreSourceDTO(p.id, p.publicationDate, p.isVerified, p.commentCount) " +
+           "FROM PostEntity p WHERE p.id = :id")
+    PostScoreSourceDTO findScoreSourceById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE PostEntity p SET p.baseScore = :baseScore, p.scoreUpdatedAt = :updatedAt WHERE p.id = :id")
+    int updateBaseScore(@Param("id") Long id, @Param("baseScore") Double baseScore, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Paginación por keyset (cursor) de publicaciones de seguidos; los posts en proceso o fallidos (active = false) no se listan
+    @EntityGraph("PostEntity.listing")
+    List<PostEntity> findByUserAccount_IdInAndActiveTrueOrderByPublicationDateDescIdDesc(List<Long> accountIds, Pageable pageable);
+
+    // Las publicaciones sin fecha (filas previas) van al final del orden descendente
+    @EntityGraph("PostEntity.listing")
+    @Query("SELECT p FROM PostEntity p WHERE p.userAccount.id IN :accountIds AND p.active = true AND " +
+           "(p.publicationDate < :publicationDate OR (p.publicationDate = :publicationDate AND p.id < :id) " +
+           "OR p.publicationDate IS NULL) " +
+           "ORDER BY p.publicationDate DESC, p.id DESC")
+    List<PostEntity> findFollowingsPostsAfter(
+        @Param("accountIds") List<Long> accountIds,
+        @Param("publicationDate") LocalDateTime publicationDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @EntityGraph("PostEntity.listing")
+    @Query("SELECT p FROM PostEntity p WHERE p.userAccount.id IN :accountIds AND p.active = true " +
+           "AND p.publicationDate IS NULL AND p.id < :id " +
+           "ORDER BY p.id DESC")
+    List<PostEntity> findFollowingsPostsWithoutDateAfter(
+        @Param("accountIds") List<Long> accountIds,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // Publicación asíncrona: posts que quedaron en proceso (p.ej. por un reinicio) y su cierre condicional
+    @Query("SELECT p.id FROM PostEntity p WHERE p.publicationStatus = :status AND p.publicationDate < :cutoff")
+    List<Long> findIdsByPublicationStatusBefore(@Param("status") PublicationStatus status,
+                                                @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("UPDATE PostEntity p SET p.publicationStatus = :to WHERE p.id = :id AND p.publicationStatus = :from")
+    int updatePublicationStatus(@Param("id") Long id, @Param("from") PublicationStatus from,
+                                @Param("to") PublicationStatus to);
+
+    // Contador desnormalizado de comentarios
+    @Query("SELECT p.commentCount FROM PostEntity p WHERE p.id = :id")
+    Long findCommentCountById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.commentCount FROM PostEntity p WHERE p.id > :lastId ORDER BY p.id")
+    List<Object[]> findCommentCounters(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PostEntity p SET p.commentCount = COALESCE(p.commentCount, 0) + 1 WHERE p.id = :id")
+    int incrementCommentCount(@Param("id") Long id);
+
+    // Solo corrige si el contador sigue con el valor leído; si un comentario concurrente lo movió, se omite
+    @Modifying
+    @Query("UPDATE PostEntity p SET p.commentCount = :commentCount WHERE p.id = :id AND COALESCE(p.commentCount, 0) = :seenCount")
+    int updateCommentCount(@Param("id") Long id, @Param("commentCount") Long commentCount, @Param("seenCount") Long seenCount);
+
 }
@@ -3,7 +3,6 @@ package org.cinos.core.posts.repository.specs;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
 import org.cinos.core.posts.dto.PostFilterDTO;
-import org.cinos.core.posts.entity.CommentEntity;
 import org.cinos.core.posts.entity.PostEntity;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
@@ -60,12 +59,10 @@ public class PostSpecifications {
                     criteriaBuilder.quot(1.0, criteriaBuilder.sum(hoursSincePublication, 1))
             );
 
-            // Factor de comentarios
-            var subquery = query.subquery(Long.class);
-            var commentRoot = subquery.from(CommentEntity.class);
-            subquery.select(criteriaBuilder.count(commentRoot));
-            subquery.where(criteriaBuilder.equal(commentRoot.get("postId"), root.get("id")));
-            Expression<Double> commentsFactor = criteriaBuilder.toDouble(subquery.getSelection());
+            // Factor de comentarios (contador desnormalizado en POSTS.comment_count)
+            Expression<Double> commentsFactor = criteriaBuilder.toDouble(
+                    criteriaBuilder.coalesce(root.<Long>get("commentCount"), 0L)
+            );
 
             // Factor de proximidad - Solo calcular si se debe usar ubicación
             Expression<Double> proximityScore;
@@ -165,9 +162,15 @@ public class PostSpecifications {
         };
     }
 
+    public static Specification<PostEntity> idLessThan(Long id) {
+        return (root, query, cb) -> id == null ? cb.conjunction() : cb.lessThan(root.get("id"), id);
+    }
+
     public static Specification<PostEntity> postFilterSpec(PostFilterDTO filter) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
+            // Los posts en proceso de publicación o fallidos quedan inactivos y no se listan
+            predicates.add(cb.isTrue(root.get("active")));
 
             if (filter.make() != null) {
                 predicates.add(root.get("make").in(filter.make()));
@@ -0,0 +1,18 @@
+package org.cinos.core.posts.service;
+
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.users.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface IPostScoreService {
+    void refreshScore(Long postId);
+    int refreshActiveScores();
+    Page<PostEntity> getRankedFeed(UserEntity user, List<Long> followingsIds, Double userLatitude, Double userLongitude, Pageable pageable);
+    List<RankedPost> getRankedFeedAfter(UserEntity user, List<Long> followingsIds, Double userLatitude, Double userLongitude, Double lastBaseScore, Long lastId, int limit);
+
+    record RankedPost(PostEntity post, double score) {
+    }
+}
@@ -1,11 +1,13 @@
 package org.cinos.core.posts.service;
 
 import org.cinos.core.posts.controller.request.PostCreateRequest;
+import org.cinos.core.posts.dto.CursorPageDTO;
 import org.cinos.core.posts.dto.PostDTO;
 import org.cinos.core.posts.dto.PostFeedDTO;
 import org.cinos.core.posts.dto.PostFilterDTO;
 import org.cinos.core.posts.dto.PostProfileDTO;
 import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.models.FeedEngineType;
 import org.cinos.core.posts.utils.exceptions.PostNotFoundException;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 import org.springframework.data.domain.Page;
@@ -17,11 +19,14 @@ import java.util.List;
 
 public interface IPostService {
     List<PostDTO> getPostPageable(Integer page, Integer size);
-    Page<PostFeedDTO> getFeedPosts(Long userId, Pageable pageable, Double userLatitude, Double userLongitude) throws UserNotFoundException ;
+    Page<PostFeedDTO> getFeedPosts(Long userId, Pageable pageable, Double userLatitude, Double userLongitude, FeedEngineType engine) throws UserNotFoundException ;
+    CursorPageDTO<PostFeedDTO> getFeedPostsCursor(Long userId, String cursor, Integer size, Double userLatitude, Double userLongitude) throws UserNotFoundException;
     Page<PostDTO> getFollowingsPosts(Long userId, Pageable pageable) throws UserNotFoundException;
+    CursorPageDTO<PostDTO> getFollowingsPostsCursor(Long userId, String cursor, Integer size) throws UserNotFoundException;
     PostDTO getById(Long id) throws PostNotFoundException;
     List<PostDTO> getByUserId(Long userId);
     PostDTO createPost(PostCreateRequest request, List<MultipartFile> files) throws IOException, UserNotFoundException;
+    PostDTO createPostAsync(PostCreateRequest request, List<MultipartFile> files) throws IOException, UserNotFoundException;
     List<PostProfileDTO> getPostsProfile(Long userId) throws UserNotFoundException;
     PostEntity getPostEntityById(Long id) throws PostNotFoundException;
     List<PostProfileDTO> getSavedPostsProfile(Long userId) throws UserNotFoundException;
@@ -31,6 +36,7 @@ public interface IPostService {
     void deactivatePost(Long postId) throws PostNotFoundException;
     void uploadDocumentation(Long postId, List<MultipartFile> files) throws PostNotFoundException, IOException;
     Page<PostDTO> getPostsFilter(PostFilterDTO postFilterDTO);
+    CursorPageDTO<PostDTO> getPostsFilterCursor(PostFilterDTO postFilterDTO);
     List<PostDTO> searchPosts(String query);
 
 }
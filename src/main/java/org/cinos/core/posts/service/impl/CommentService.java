@@ -1,33 +1,48 @@
 package org.cinos.core.posts.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.cinos.core.posts.dto.CommentDTO;
 import org.cinos.core.posts.entity.CommentEntity;
+import org.cinos.core.posts.events.CommentCreateEvent;
 import org.cinos.core.posts.repository.CommentRepository;
+import org.cinos.core.posts.repository.PostRepository;
 import org.cinos.core.posts.service.ICommentService;
 import org.cinos.core.users.service.impl.AccountService;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CommentService implements ICommentService {
 
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
     private final AccountService accountService;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Cache para control de rate limiting por usuario
     private final ConcurrentHashMap<Long, LocalDateTime> userLastCommentTime = new ConcurrentHashMap<>();
     private static final int MIN_COMMENT_INTERVAL_SECONDS = 3; // 3 segundos entre comentarios
     private static final int MAX_COMMENT_LENGTH = 500; // Máximo 500 caracteres
+    private static final int RECONCILE_BATCH_SIZE = 1000;
 
     @Override
     public Page<CommentDTO> getCommentsByPostId(Long postId, Pageable page) {
@@ -55,10 +70,12 @@ public class CommentService implements ICommentService {
 
     @Override
     public Integer getCommentsLength(Long postId) {
-        return commentRepository.findByPostId(postId).size();
+        Long commentCount = postRepository.findCommentCountById(postId);
+        return commentCount != null ? commentCount.intValue() : 0;
     }
 
     @Override
+    @Transactional
     public CommentDTO createComment(CommentDTO commentDTO) {
         // Validar contenido del comentario
         validateCommentContent(commentDTO.content());
@@ -77,6 +94,11 @@ public class CommentService implements ICommentService {
                 .build();
 
         commentRepository.save(commentEntity);
+        postRepository.incrementCommentCount(commentEntity.getPostId());
+        eventPublisher.publishEvent(CommentCreateEvent.builder()
+                .userId(commentEntity.getUserId())
+                .postId(commentEntity.getPostId())
+                .build());
         return CommentDTO.builder()
                 .id(commentEntity.getId())
                 .postId(commentEntity.getPostId())
@@ -86,6 +108,41 @@ public class CommentService implements ICommentService {
                 .build();
     }
     
+    /**
+     * Corrige en lotes las diferencias entre POSTS.comment_count y los comentarios reales,
+     * solo si el contador no cambió desde que se leyó
+     */
+    @Scheduled(cron = "${posts.comments.reconcile-cron:0 30 3 * * *}")
+    public int reconcileCommentCounts() {
+        int repaired = 0;
+        Long lastId = 0L;
+        List<Object[]> counters;
+        do {
+            counters = postRepository.findCommentCounters(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (counters.isEmpty()) {
+                break;
+            }
+            List<Long> postIds = counters.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, Long> actualCounts = new HashMap<>();
+            commentRepository.countByPostIds(postIds).forEach(row -> actualCounts.put((Long) row[0], (Long) row[1]));
+
+            List<Object[]> drifted = counters.stream()
+                    .filter(row -> !actualCounts.getOrDefault((Long) row[0], 0L).equals(row[1]))
+                    .toList();
+            if (!drifted.isEmpty()) {
+                Integer updated = transactionTemplate.execute(status -> drifted.stream()
+                        .mapToInt(row -> postRepository.updateCommentCount((Long) row[0],
+                                actualCounts.getOrDefault((Long) row[0], 0L), row[1] != null ? (Long) row[1] : 0L))
+                        .sum());
+                repaired += updated != null ? updated : 0;
+            }
+            lastId = postIds.get(postIds.size() - 1);
+        } while (counters.size() == RECONCILE_BATCH_SIZE);
+
+        log.info("Reconciliacion de contadores de comentarios: {} publicaciones corregidas", repaired);
+        return repaired;
+    }
+
     /**
      * Valida el contenido del comentario
      */
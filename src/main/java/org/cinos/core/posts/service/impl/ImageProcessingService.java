@@ -1,8 +1,13 @@
 package org.cinos.core.posts.service.impl;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
 import net.coobird.thumbnailator.geometry.Positions;
+import org.cinos.core.posts.utils.ImageDecoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -11,9 +16,24 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageProcessingService {
@@ -36,48 +56,272 @@ public class ImageProcessingService {
     // Tamaño máximo de archivo (ahora mucho más alto)
     private static final long MAX_FILE_SIZE = 100 * 1024 * 1024; // 100MB
 
+    // Variantes generadas por cada imagen subida, de mayor a menor: cada una se deriva de la anterior
+    static final List<Variant> VARIANTS = List.of(
+            new Variant("original", ORIGINAL_MAX_WIDTH, ORIGINAL_MAX_HEIGHT, HIGH_QUALITY),
+            new Variant("medium", MEDIUM_WIDTH, MEDIUM_HEIGHT, MEDIUM_QUALITY),
+            new Variant("thumbnail", THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, MEDIUM_QUALITY),
+            new Variant("small", SMALL_WIDTH, SMALL_HEIGHT, LOW_QUALITY)
+    );
+    // Variantes derivadas, para imágenes cuyo original ya está almacenado
+    private static final List<Variant> DERIVED_VARIANTS = VARIANTS.subList(1, VARIANTS.size());
+
     private final StorageService storageService;
 
+    // Hilos para decodificar/redimensionar/codificar (CPU). 0 = cantidad de procesadores
+    @Value("${images.processing.encode-threads:0}")
+    private int encodeThreads;
+
+    // Hilos para subir variantes a GCS (I/O)
+    @Value("${images.processing.upload-threads:16}")
+    private int uploadThreads;
+
+    private ExecutorService encodeExecutor;
+    private ExecutorService uploadExecutor;
+
+    @PostConstruct
+    void initExecutors() {
+        int cpuThreads = encodeThreads > 0 ? encodeThreads : Runtime.getRuntime().availableProcessors();
+        encodeExecutor = Executors.newFixedThreadPool(cpuThreads, namedThreads("image-encode-"));
+        uploadExecutor = Executors.newFixedThreadPool(uploadThreads, namedThreads("image-upload-"));
+    }
+
+    @PreDestroy
+    void shutdownExecutors() {
+        encodeExecutor.shutdown();
+        uploadExecutor.shutdown();
+    }
+
     /**
      * Procesa una imagen y crea múltiples versiones con diferentes resoluciones
      * Ahora maneja imágenes de cualquier tamaño
      */
     public Map<String, String> processImageWithMultipleResolutions(MultipartFile file) throws IOException {
-        // Validar el archivo
-        validateImageFile(file);
-        
-        // Leer la imagen original
-        BufferedImage originalImage = ImageIO.read(file.getInputStream());
-        if (originalImage == null) {
-            throw new IllegalArgumentException("No se pudo leer la imagen: " + file.getOriginalFilename());
+        return processImage(file).urls();
+    }
+
+    /**
+     * Procesa una imagen: la decodifica una sola vez y genera/sube sus variantes en paralelo
+     */
+    public ProcessedImage processImage(MultipartFile file) throws IOException {
+        return processImages(List.of(file)).get(0);
+    }
+
+    /**
+     * Procesa varias imágenes de forma concurrente, manteniendo el orden recibido.
+     * Cada imagen se decodifica una vez y se reduce en cascada (original → medium → thumbnail → small);
+     * cada variante se codifica en el pool de CPU apenas está lista y se sube en el pool de I/O
+     * sin bloquear hilos de codificación.
+     */
+    public List<ProcessedImage> processImages(List<MultipartFile> files) throws IOException {
+        List<ImageSource> sources = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            validateImageFile(file);
+            sources.add(new ImageSource(file.getOriginalFilename(), file.getSize(), file::getInputStream));
         }
+        return processSources(sources, VARIANTS);
+    }
 
-        Map<String, String> imageUrls = new HashMap<>();
-        String baseFileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        
-        // Procesar imagen original optimizada (mantiene alta calidad pero comprime)
-        byte[] originalBytes = processImage(originalImage, ORIGINAL_MAX_WIDTH, ORIGINAL_MAX_HEIGHT, HIGH_QUALITY, "original");
-        String originalUrl = uploadImageToStorage(originalBytes, baseFileName + "_original.jpg");
-        imageUrls.put("original", originalUrl);
-        
-        // Procesar imagen mediana
-        byte[] mediumBytes = processImage(originalImage, MEDIUM_WIDTH, MEDIUM_HEIGHT, MEDIUM_QUALITY, "medium");
-        String mediumUrl = uploadImageToStorage(mediumBytes, baseFileName + "_medium.jpg");
-        imageUrls.put("medium", mediumUrl);
-        
-        // Procesar miniatura
-        byte[] thumbnailBytes = processImage(originalImage, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, MEDIUM_QUALITY, "thumbnail");
-        String thumbnailUrl = uploadImageToStorage(thumbnailBytes, baseFileName + "_thumbnail.jpg");
-        imageUrls.put("thumbnail", thumbnailUrl);
-        
-        // Procesar imagen pequeña
-        byte[] smallBytes = processImage(originalImage, SMALL_WIDTH, SMALL_HEIGHT, LOW_QUALITY, "small");
-        String smallUrl = uploadImageToStorage(smallBytes, baseFileName + "_small.jpg");
-        imageUrls.put("small", smallUrl);
-        
-        return imageUrls;
+    /**
+     * Procesa imágenes previamente guardadas en disco (publicación asíncrona), con el mismo pipeline
+     */
+    public List<ProcessedImage> processStagedImages(List<StagedImage> images) throws IOException {
+        List<ImageSource> sources = new ArrayList<>(images.size());
+        for (StagedImage image : images) {
+            sources.add(new ImageSource(image.originalFilename(), Files.size(image.path()),
+                    () -> Files.newInputStream(image.path())));
+        }
+        return processSources(sources, VARIANTS);
+    }
+
+    /**
+     * Genera las variantes derivadas (medium, thumbnail, small) de una imagen ya almacenada,
+     * sin volver a subir el original. Usado para completar imágenes previas a las variantes
+     */
+    public ProcessedImage processStoredImage(String imageUrl) throws IOException {
+        byte[] imageBytes = downloadImageFromUrl(imageUrl);
+        String fileName = imageUrl.substring(imageUrl.lastIndexOf('/') + 1).replaceAll("[?#].*$", "");
+        ImageSource source = new ImageSource(fileName, imageBytes.length, () -> new ByteArrayInputStream(imageBytes));
+        return processSources(List.of(source), DERIVED_VARIANTS).get(0);
+    }
+
+    /**
+     * Borra del bucket las variantes subidas de imágenes que finalmente no se van a usar
+     */
+    public void deleteStoredVariants(List<ProcessedImage> images) {
+        for (ProcessedImage image : images) {
+            for (String objectName : image.objectNames()) {
+                try {
+                    storageService.deleteFile(objectName);
+                } catch (Exception e) {
+                    log.warn("No se pudo borrar la variante {}: {}", objectName, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<ProcessedImage> processSources(List<ImageSource> sources, List<Variant> variantChain) throws IOException {
+        long start = System.nanoTime();
+        List<CompletableFuture<ProcessedImage>> futures = sources.stream()
+                .map(source -> processImageAsync(source, variantChain))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+
+        List<ProcessedImage> processed = new ArrayList<>(sources.size());
+        for (CompletableFuture<ProcessedImage> future : futures) {
+            processed.add(await(future));
+        }
+        log.info("{} imágenes procesadas en {} ms", sources.size(), elapsedMs(start));
+        return processed;
+    }
+
+    private CompletableFuture<ProcessedImage> processImageAsync(ImageSource file, List<Variant> variantChain) {
+        long start = System.nanoTime();
+        String baseFileName = UUID.randomUUID() + "_" + file.originalFilename();
+        return CompletableFuture.supplyAsync(() -> decode(file), encodeExecutor)
+                .thenCompose(decoded -> {
+                    List<CompletableFuture<VariantResult>> variants = new ArrayList<>(variantChain.size());
+                    CompletableFuture<ResizedVariant> previous = CompletableFuture.completedFuture(
+                            new ResizedVariant(null, decoded.image(), 0));
+                    for (Variant variant : variantChain) {
+                        CompletableFuture<ResizedVariant> resized = previous
+                                .thenApplyAsync(larger -> resizeVariant(larger.image(), variant), encodeExecutor);
+                        variants.add(resized
+                                .thenApplyAsync(this::encodeVariant, encodeExecutor)
+                                .thenApplyAsync(encoded -> uploadVariant(encoded, baseFileName), uploadExecutor));
+                        previous = resized;
+                    }
+                    return CompletableFuture.allOf(variants.toArray(new CompletableFuture[0]))
+                            .thenApply(ignored -> {
+                                Map<String, String> urls = new HashMap<>();
+                                List<String> objectNames = new ArrayList<>(variants.size());
+                                // Dimensiones de la variante original; si no se generó, las de la imagen almacenada
+                                int width = decoded.image().getWidth();
+                                int height = decoded.image().getHeight();
+                                StringBuilder timings = new StringBuilder();
+                                for (CompletableFuture<VariantResult> future : variants) {
+                                    VariantResult result = future.join();
+                                    urls.put(result.name(), result.url());
+                                    objectNames.add(result.objectName());
+                                    if ("original".equals(result.name())) {
+                                        width = result.width();
+                                        height = result.height();
+                                    }
+                                    timings.append(' ').append(result.name())
+                                            .append("[resize=").append(result.resizeMs())
+                                            .append("ms encode=").append(result.encodeMs())
+                                            .append("ms upload=").append(result.uploadMs()).append("ms]");
+                                }
+                                log.info("Imagen {}: decode={}ms{} total={}ms",
+                                        file.originalFilename(), decoded.decodeMs(), timings, elapsedMs(start));
+                                return new ProcessedImage(urls, ImageInfo.builder()
+                                        .width(decoded.sourceWidth())
+                                        .height(decoded.sourceHeight())
+                                        .size(file.size())
+                                        .format(getImageFormat(file.originalFilename()))
+                                        .build(), width, height, objectNames);
+                            });
+                });
+    }
+
+    private DecodedImage decode(ImageSource file) {
+        long start = System.nanoTime();
+        try (InputStream inputStream = file.opener().open()) {
+            // Se decodifica submuestreada cerca del tamaño de la variante más grande
+            ImageDecoder.DecodedImage decoded = ImageDecoder.decode(inputStream, ORIGINAL_MAX_WIDTH, ORIGINAL_MAX_HEIGHT);
+            if (decoded.image() == null) {
+                throw new IllegalArgumentException("No se pudo leer la imagen: " + file.originalFilename());
+            }
+            return new DecodedImage(decoded.image(), decoded.sourceWidth(), decoded.sourceHeight(), elapsedMs(start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResizedVariant resizeVariant(BufferedImage larger, Variant variant) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage resized = resizeImageIfNeeded(larger, variant.maxWidth(), variant.maxHeight());
+            return new ResizedVariant(variant, resized, elapsedMs(start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EncodedVariant encodeVariant(ResizedVariant resized) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = optimizeImage(resized.image(), resized.variant().quality());
+            return new EncodedVariant(resized.variant().name(), bytes, resized.image().getWidth(), resized.image().getHeight(),
+                    resized.resizeMs(), elapsedMs(start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private VariantResult uploadVariant(EncodedVariant encoded, String baseFileName) {
+        long start = System.nanoTime();
+        String objectName = baseFileName + "_" + encoded.name() + ".jpg";
+        String url = storageService.uploadBytes(encoded.bytes(), objectName, "image/jpeg");
+        return new VariantResult(encoded.name(), url, objectName, encoded.width(), encoded.height(),
+                encoded.resizeMs(), encoded.encodeMs(), elapsedMs(start));
+    }
+
+    /**
+     * Espera el resultado y desenvuelve la causa original del error
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
+    /**
+     * Resultado del procesamiento: URL por variante, información del archivo subido,
+     * dimensiones de la variante original almacenada y nombres de los objetos subidos al bucket
+     */
+    public record ProcessedImage(Map<String, String> urls, ImageInfo info, int width, int height, List<String> objectNames) {}
+
+    /**
+     * Imagen subida guardada temporalmente en disco a la espera de ser procesada
+     */
+    public record StagedImage(Path path, String originalFilename) {}
+
+    @FunctionalInterface
+    private interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    private record ImageSource(String originalFilename, long size, StreamOpener opener) {}
+
+    record Variant(String name, int maxWidth, int maxHeight, float quality) {}
+    private record DecodedImage(BufferedImage image, int sourceWidth, int sourceHeight, long decodeMs) {}
+    private record ResizedVariant(Variant variant, BufferedImage image, long resizeMs) {}
+    private record EncodedVariant(String name, byte[] bytes, int width, int height, long resizeMs, long encodeMs) {}
+    private record VariantResult(String name, String url, String objectName, int width, int height, long resizeMs, long encodeMs, long uploadMs) {}
+
     /**
      * Procesa una imagen con configuración específica
      * Mejorado para manejar imágenes grandes
@@ -94,7 +338,7 @@ public class ImageProcessingService {
      * Redimensiona la imagen si excede las dimensiones máximas
      * Mejorado para manejar imágenes muy grandes
      */
-    private BufferedImage resizeImageIfNeeded(BufferedImage originalImage, int maxWidth, int maxHeight) throws IOException {
+    static BufferedImage resizeImageIfNeeded(BufferedImage originalImage, int maxWidth, int maxHeight) throws IOException {
         int originalWidth = originalImage.getWidth();
         int originalHeight = originalImage.getHeight();
         
@@ -140,58 +384,15 @@ public class ImageProcessingService {
     /**
      * Sube una imagen al almacenamiento
      */
-    private String uploadImageToStorage(byte[] imageBytes, String fileName) throws IOException {
-        // Crear un MultipartFile temporal para usar el StorageService existente
-        MultipartFile tempFile = new MultipartFile() {
-            @Override
-            public String getName() {
-                return fileName;
-            }
-
-            @Override
-            public String getOriginalFilename() {
-                return fileName;
-            }
-
-            @Override
-            public String getContentType() {
-                return "image/jpeg";
-            }
-
-            @Override
-            public boolean isEmpty() {
-                return imageBytes.length == 0;
-            }
-
-            @Override
-            public long getSize() {
-                return imageBytes.length;
-            }
-
-            @Override
-            public byte[] getBytes() throws IOException {
-                return imageBytes;
-            }
-
-            @Override
-            public java.io.InputStream getInputStream() throws IOException {
-                return new ByteArrayInputStream(imageBytes);
-            }
-
-            @Override
-            public void transferTo(java.io.File dest) throws IOException, IllegalStateException {
-                // No implementado para este caso
-            }
-        };
-        
-        return storageService.uploadFile(tempFile);
+    private String uploadImageToStorage(byte[] imageBytes, String fileName) {
+        return storageService.uploadBytes(imageBytes, fileName, "image/jpeg");
     }
 
     /**
      * Valida que el archivo sea una imagen válida
      * Ahora permite archivos mucho más grandes
      */
-    private void validateImageFile(MultipartFile file) {
+    void validateImageFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("El archivo no puede estar vacío");
         }
@@ -214,8 +415,8 @@ public class ImageProcessingService {
         // Descargar la imagen desde la URL
         byte[] imageBytes = downloadImageFromUrl(imageUrl);
         
-        // Crear miniatura
-        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        // Crear miniatura (decodificación submuestreada cerca del tamaño de la miniatura)
+        BufferedImage originalImage = ImageDecoder.decode(new ByteArrayInputStream(imageBytes), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT).image();
         if (originalImage == null) {
             throw new IllegalArgumentException("No se pudo leer la imagen desde la URL");
         }
@@ -246,14 +447,15 @@ public class ImageProcessingService {
      * Obtiene información de una imagen
      */
     public ImageInfo getImageInfo(MultipartFile file) throws IOException {
-        BufferedImage image = ImageIO.read(file.getInputStream());
-        if (image == null) {
-            throw new IllegalArgumentException("No se pudo leer la imagen");
+        // Solo se leen las dimensiones del encabezado, sin decodificar los píxeles
+        ImageDecoder.Dimensions dimensions;
+        try (InputStream inputStream = file.getInputStream()) {
+            dimensions = ImageDecoder.readDimensions(inputStream);
         }
         
         return ImageInfo.builder()
-                .width(image.getWidth())
-                .height(image.getHeight())
+                .width(dimensions.width())
+                .height(dimensions.height())
                 .size(file.getSize())
                 .format(getImageFormat(file.getOriginalFilename()))
                 .build();
@@ -319,12 +521,13 @@ public class ImageProcessingService {
         imageUrls.put("original", originalUrl);
         
         // Versión mediana
-        byte[] mediumBytes = processImage(originalImage, MEDIUM_WIDTH, MEDIUM_HEIGHT, MEDIUM_QUALITY, "medium");
+        BufferedImage mediumImage = resizeImageIfNeeded(originalImage, MEDIUM_WIDTH, MEDIUM_HEIGHT);
+        byte[] mediumBytes = optimizeImage(mediumImage, MEDIUM_QUALITY);
         String mediumUrl = uploadImageToStorage(mediumBytes, baseFileName + "_medium.jpg");
         imageUrls.put("medium", mediumUrl);
         
-        // Miniatura
-        byte[] thumbnailBytes = processImage(originalImage, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, MEDIUM_QUALITY, "thumbnail");
+        // Miniatura (derivada de la versión mediana)
+        byte[] thumbnailBytes = processImage(mediumImage, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, MEDIUM_QUALITY, "thumbnail");
         String thumbnailUrl = uploadImageToStorage(thumbnailBytes, baseFileName + "_thumbnail.jpg");
         imageUrls.put("thumbnail", thumbnailUrl);
         
@@ -0,0 +1,93 @@
+package org.cinos.core.posts.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.posts.entity.PostImageEntity;
+import org.cinos.core.posts.repository.PostImageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Completa las variantes (medium, thumbnail, small) y dimensiones de imágenes subidas
+ * cuando solo se guardaba la URL original. Cada imagen se reserva con un UPDATE condicional antes de procesarla,
+ * de modo que varios nodos pueden ejecutar el job sin repetir trabajo, y se abandona tras agotar sus intentos
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostImageBackfillService {
+
+    private static final int BACKFILL_BATCH_SIZE = 20;
+
+    private final PostImageRepository postImageRepository;
+    private final ImageProcessingService imageProcessingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${posts.images.backfill-max-attempts:5}")
+    private int maxAttempts;
+
+    // Duración de la reserva; si el nodo cae, la imagen vuelve a estar disponible al vencer
+    @Value("${posts.images.backfill-lease-seconds:600}")
+    private long leaseSeconds;
+
+    /**
+     * Recorre por id las imágenes sin variantes; las que fallan se reintentan en próximas ejecuciones
+     * hasta posts.images.backfill-max-attempts
+     */
+    @Scheduled(initialDelayString = "${posts.images.backfill-initial-delay-ms:60000}",
+            fixedDelayString = "${posts.images.backfill-ms:300000}")
+    public int backfillVariants() {
+        int completed = 0;
+        int failed = 0;
+        Long lastId = 0L;
+        List<PostImageEntity> batch;
+        do {
+            batch = postImageRepository.findBackfillCandidates(lastId, maxAttempts, LocalDateTime.now(), PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            for (PostImageEntity image : batch) {
+                if (!claim(image.getId())) {
+                    continue;
+                }
+                try {
+                    ImageProcessingService.ProcessedImage processed = imageProcessingService.processStoredImage(image.getUrl());
+                    transactionTemplate.executeWithoutResult(status -> postImageRepository.updateVariants(
+                            image.getId(),
+                            processed.urls().get("medium"),
+                            processed.urls().get("thumbnail"),
+                            processed.urls().get("small"),
+                            processed.width(),
+                            processed.height()));
+                    completed++;
+                } catch (Exception e) {
+                    int attempt = image.getVariantAttempts() + 1;
+                    if (attempt >= maxAttempts) {
+                        log.error("Se abandona el backfill de la imagen {} tras {} intentos: {}", image.getId(), attempt, e.getMessage());
+                    } else {
+                        log.warn("No se pudieron generar las variantes de la imagen {} (intento {}): {}", image.getId(), attempt, e.getMessage());
+                    }
+                    failed++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+
+        if (completed > 0 || failed > 0) {
+            log.info("Backfill de variantes de imágenes: {} completadas, {} con error", completed, failed);
+        }
+        return completed;
+    }
+
+    private boolean claim(Long imageId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                postImageRepository.claimForBackfill(imageId, maxAttempts, now, now.plusSeconds(leaseSeconds)));
+        return claimed != null && claimed > 0;
+    }
+}
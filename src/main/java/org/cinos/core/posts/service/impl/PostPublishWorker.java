@@ -0,0 +1,289 @@
+package org.cinos.core.posts.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.notifications.service.NotificationOutboxService;
+import org.cinos.core.posts.dto.PostDTO;
+import org.cinos.core.posts.dto.mapper.PostMapper;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.entity.PostImageEntity;
+import org.cinos.core.posts.events.PostCreateEvent;
+import org.cinos.core.posts.models.PublicationStatus;
+import org.cinos.core.posts.repository.PostRepository;
+import org.cinos.core.posts.utils.exceptions.PublishQueueFullException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Publicación asíncrona de posts: guarda las imágenes subidas en disco, las procesa en un pool
+ * de trabajadores y activa el post al terminar, avisando al dueño por STOMP en /user/queue/posts.
+ * La cola es acotada y solo vive en memoria: si está llena se rechaza la publicación, y un barrido periódico
+ * marca como fallidos los posts que quedaron en PROCESSING (p.ej. tras un reinicio) y borra sus archivos temporales.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostPublishWorker {
+
+    private final ImageProcessingService imageProcessingService;
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationOutboxService notificationOutboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${posts.publish.staging-dir:${java.io.tmpdir}/cinos-uploads}")
+    private String stagingDir;
+
+    @Value("${posts.publish.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${posts.publish.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Antigüedad a partir de la cual un post en PROCESSING sin trabajo en curso se considera perdido
+    @Value("${posts.publish.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    // Posts encolados o en proceso en este nodo, con sus archivos temporales
+    private final Map<Long, List<ImageProcessingService.StagedImage>> inFlight = new ConcurrentHashMap<>();
+
+    private Path stagingPath;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() throws IOException {
+        stagingPath = Files.createDirectories(Path.of(stagingDir));
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "post-publish-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Valida y guarda en disco las imágenes subidas para procesarlas fuera del request
+     */
+    public List<ImageProcessingService.StagedImage> stage(List<MultipartFile> images) throws IOException {
+        for (MultipartFile image : images) {
+            imageProcessingService.validateImageFile(image);
+        }
+        List<ImageProcessingService.StagedImage> staged = new ArrayList<>(images.size());
+        try {
+            for (MultipartFile image : images) {
+                Path path = Files.createTempFile(stagingPath, "post-", ".upload");
+                image.transferTo(path);
+                staged.add(new ImageProcessingService.StagedImage(path, image.getOriginalFilename()));
+            }
+        } catch (IOException e) {
+            deleteStaged(staged);
+            throw e;
+        }
+        return staged;
+    }
+
+    /**
+     * Encola el procesamiento de las imágenes de un post guardado en estado PROCESSING.
+     * Si la cola está llena se descartan el post y sus archivos y se lanza PublishQueueFullException (503)
+     */
+    public void submit(Long postId, List<ImageProcessingService.StagedImage> staged) {
+        inFlight.put(postId, staged);
+        try {
+            executor.execute(() -> publish(postId, staged));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(postId);
+            deleteStaged(staged);
+            discard(postId);
+            throw new PublishQueueFullException("La cola de publicación está llena, intente nuevamente en unos minutos");
+        }
+    }
+
+    /**
+     * Barrido de recuperación: los archivos temporales no sobreviven a un reinicio, así que los posts que siguen
+     * en PROCESSING sin trabajo en curso en este nodo se marcan como fallidos y se borran los archivos huérfanos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${posts.publish.recovery-ms:600000}", initialDelayString = "${posts.publish.recovery-ms:600000}")
+    public void recoverStalePublications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+        int failed = 0;
+        try {
+            for (Long postId : postRepository.findIdsByPublicationStatusBefore(PublicationStatus.PROCESSING, cutoff)) {
+                if (!inFlight.containsKey(postId) && markFailed(postId)) {
+                    failed++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error buscando publicaciones pendientes: {}", e.getMessage(), e);
+        }
+        int deleted = deleteOrphanedStagedFiles(Instant.now().minus(staleAfterMinutes, ChronoUnit.MINUTES));
+        if (failed > 0 || deleted > 0) {
+            log.warn("Recuperación de publicaciones: {} posts marcados como fallidos, {} archivos temporales borrados",
+                    failed, deleted);
+        }
+    }
+
+    /**
+     * Entidades de imagen en el orden de subida, con la URL original como principal y todas sus variantes
+     */
+    public List<PostImageEntity> toImageEntities(PostEntity post, List<ImageProcessingService.ProcessedImage> processedImages) {
+        List<PostImageEntity> imagesEntity = new ArrayList<>(processedImages.size());
+        for (int position = 0; position < processedImages.size(); position++) {
+            ImageProcessingService.ProcessedImage processed = processedImages.get(position);
+            imagesEntity.add(PostImageEntity.builder()
+                    .url(processed.urls().get("original"))
+                    .mediumUrl(processed.urls().get("medium"))
+                    .thumbnailUrl(processed.urls().get("thumbnail"))
+                    .smallUrl(processed.urls().get("small"))
+                    .width(processed.width())
+                    .height(processed.height())
+                    .position(position)
+                    .post(post)
+                    .build());
+        }
+        return imagesEntity;
+    }
+
+    private void publish(Long postId, List<ImageProcessingService.StagedImage> staged) {
+        long start = System.currentTimeMillis();
+        try {
+            List<ImageProcessingService.ProcessedImage> processedImages = imageProcessingService.processStagedImages(staged);
+            // Transición condicional: otro nodo pudo haberlo marcado como fallido mientras se procesaba
+            Publication publication = transactionTemplate.execute(status -> {
+                if (postRepository.updatePublicationStatus(postId, PublicationStatus.PROCESSING, PublicationStatus.PUBLISHED) == 0) {
+                    return null;
+                }
+                PostEntity post = postRepository.findById(postId)
+                        .orElseThrow(() -> new IllegalStateException("Post no encontrado: " + postId));
+                post.getImages().addAll(toImageEntities(post, processedImages));
+                post.setActive(Boolean.TRUE);
+                postRepository.save(post);
+                notificationOutboxService.enqueueNewPost(postId);
+                return new Publication(post, postMapper.toDTO(post), post.getUserAccount().getUser().getUsername());
+            });
+            if (publication == null) {
+                log.warn("Post {} ya no está en proceso, se descartan sus imágenes procesadas", postId);
+                imageProcessingService.deleteStoredVariants(processedImages);
+                return;
+            }
+            log.info("Post {} publicado en {} ms", postId, System.currentTimeMillis() - start);
+
+            eventPublisher.publishEvent(PostCreateEvent.builder()
+                    .userId(publication.post().getUserAccount().getId())
+                    .postId(postId)
+                    .build());
+            notifyOwner(publication);
+        } catch (Exception e) {
+            log.error("Error publicando post {}: {}", postId, e.getMessage(), e);
+            markFailed(postId);
+        } finally {
+            inFlight.remove(postId);
+            deleteStaged(staged);
+        }
+    }
+
+    /**
+     * Pasa el post de PROCESSING a FAILED y avisa al dueño; no toca posts que ya cambiaron de estado
+     */
+    private boolean markFailed(Long postId) {
+        try {
+            Publication publication = transactionTemplate.execute(status -> {
+                if (postRepository.updatePublicationStatus(postId, PublicationStatus.PROCESSING, PublicationStatus.FAILED) == 0) {
+                    return null;
+                }
+                return postRepository.findById(postId)
+                        .map(post -> new Publication(post, postMapper.toDTO(post), post.getUserAccount().getUser().getUsername()))
+                        .orElse(null);
+            });
+            if (publication != null) {
+                notifyOwner(publication);
+                return true;
+            }
+        } catch (Exception e) {
+            log.error("No se pudo marcar el post {} como fallido: {}", postId, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Borra un post rechazado por cola llena; todavía no tiene imágenes ni eventos publicados
+     */
+    private void discard(Long postId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> postRepository.findById(postId).ifPresent(postRepository::delete));
+        } catch (Exception e) {
+            log.error("No se pudo borrar el post rechazado {}: {}", postId, e.getMessage());
+        }
+    }
+
+    private int deleteOrphanedStagedFiles(Instant cutoff) {
+        Set<Path> live = inFlight.values().stream()
+                .flatMap(List::stream)
+                .map(ImageProcessingService.StagedImage::path)
+                .collect(Collectors.toSet());
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingPath, "post-*.upload")) {
+            for (Path file : files) {
+                if (!live.contains(file) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar el directorio temporal {}: {}", stagingPath, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private void notifyOwner(Publication publication) {
+        messagingTemplate.convertAndSendToUser(publication.username(), "/queue/posts", publication.dto());
+    }
+
+    private void deleteStaged(List<ImageProcessingService.StagedImage> staged) {
+        for (ImageProcessingService.StagedImage image : staged) {
+            try {
+                Files.deleteIfExists(image.path());
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el archivo temporal {}: {}", image.path(), e.getMessage());
+            }
+        }
+    }
+
+    private record Publication(PostEntity post, PostDTO dto, String username) {}
+}
@@ -0,0 +1,270 @@
+package org.cinos.core.posts.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.posts.dto.PostScoreSourceDTO;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.entity.PostLocationEntity;
+import org.cinos.core.posts.events.CommentCreateEvent;
+import org.cinos.core.posts.events.PostCreateEvent;
+import org.cinos.core.posts.repository.PostRepository;
+import org.cinos.core.posts.service.IPostScoreService;
+import org.cinos.core.users.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Motor de feed con score base materializado en POSTS.base_score.
+ * El score base (decaimiento temporal, comentarios y verificación) se recalcula ante
+ * eventos de publicación/comentario y periódicamente; en la consulta solo se aplican
+ * los multiplicadores del usuario sobre un conjunto acotado de candidatos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostScoreService implements IPostScoreService {
+
+    // Mismos pesos que PostSpecifications.postFeedSpec para poder comparar rankings
+    private static final double TIME_WEIGHT = 0.4;
+    private static final double COMMENTS_WEIGHT = 0.3;
+    private static final double PROXIMITY_WEIGHT = 0.2;
+    private static final double VERIFIED_BONUS_WEIGHT = 0.1;
+    private static final double VERIFIED_BONUS = 0.5;
+    private static final double VERIFIED_FACTOR = 3.0;
+    private static final double PREFERENCE_BOOST = 1.5;
+    private static final double INDIFFERENT_USED_NEW_BOOST = 1.2;
+    private static final double NEARBY_DISTANCE = 0.5;
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${posts.feed.candidate-limit:500}")
+    private Integer candidateLimit;
+
+    @Override
+    public void refreshScore(Long postId) {
+        PostScoreSourceDTO source = postRepository.findScoreSourceById(postId);
+        if (source == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        double baseScore = computeBaseScore(source, now);
+        transactionTemplate.executeWithoutResult(status -> postRepository.updateBaseScore(postId, baseScore, now));
+    }
+
+    /**
+     * Recalcula el score base de todas las publicaciones activas en lotes,
+     * manteniendo al día el decaimiento temporal
+     */
+    @Override
+    @Scheduled(initialDelayString = "${posts.feed.score-refresh-initial-delay-ms:0}",
+            fixedDelayString = "${posts.feed.score-refresh-ms:600000}")
+    public int refreshActiveScores() {
+        long start = System.currentTimeMillis();
+        int updated = 0;
+        Long lastId = 0L;
+        List<PostScoreSourceDTO> batch;
+        do {
+            batch = postRepository.findScoreSources(lastId, PageRequest.of(0, REFRESH_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<PostScoreSourceDTO> currentBatch = batch;
+            transactionTemplate.executeWithoutResult(status -> currentBatch.forEach(source ->
+                    postRepository.updateBaseScore(
+                            source.id(),
+                            computeBaseScore(source, now),
+                            now)));
+            updated += batch.size();
+            lastId = batch.get(batch.size() - 1).id();
+        } while (batch.size() == REFRESH_BATCH_SIZE);
+
+        log.info("Scores de feed recalculados para {} publicaciones en {} ms", updated, System.currentTimeMillis() - start);
+        return updated;
+    }
+
+    @EventListener
+    public void onPostCreated(PostCreateEvent event) {
+        refreshScore(event.postId());
+    }
+
+    @EventListener
+    public void onCommentCreated(CommentCreateEvent event) {
+        refreshScore(event.postId());
+    }
+
+    /**
+     * Feed paginado por offset sobre la ventana de candidatos ya rankeada en memoria. La profundidad se
+     * limita a posts.feed.candidate-limit publicaciones y totalElements informa esa profundidad, no la
+     * cantidad de posts activos: las páginas posteriores vienen vacías. Para recorrer el feed completo
+     * se usa la paginación por cursor ({@link #getRankedFeedAfter})
+     */
+    @Override
+    public Page<PostEntity> getRankedFeed(
+            UserEntity user,
+            List<Long> followingsIds,
+            Double userLatitude,
+            Double userLongitude,
+            Pageable pageable
+    ) {
+        // Candidatos generales más los de seguidos pueden superar el límite: se recorta al mismo tope siempre
+        List<PostEntity> ranked = rank(user, followingsIds, userLatitude, userLongitude).stream()
+                .map(RankedPost::post)
+                .limit(candidateLimit)
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size());
+    }
+
+    /**
+     * Siguiente página del feed por cursor: keyset sobre el score base guardado y el id, así que cada
+     * página lee solo sus filas por índice y no tiene límite de profundidad. La relevancia del usuario
+     * se calcula para las publicaciones de la página y se devuelven en orden de keyset.
+     * Entre dos recálculos del score base las páginas no repiten ni saltean publicaciones
+     */
+    @Override
+    public List<RankedPost> getRankedFeedAfter(
+            UserEntity user,
+            List<Long> followingsIds,
+            Double userLatitude,
+            Double userLongitude,
+            Double lastBaseScore,
+            Long lastId,
+            int limit
+    ) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<PostEntity> posts = lastBaseScore == null || lastId == null
+                ? postRepository.findByActiveTrueAndBaseScoreNotNullAndUserAccount_IdNotOrderByBaseScoreDescIdDesc(user.getId(), page)
+                : postRepository.findFeedAfter(user.getId(), lastBaseScore, lastId, page);
+
+        Set<Long> followings = new HashSet<>(followingsIds);
+        boolean useLocation = useLocation(user, userLatitude, userLongitude);
+        LocalDateTime now = LocalDateTime.now();
+        return posts.stream()
+                .map(post -> new RankedPost(post, relevance(post, user, followings, useLocation, userLatitude, userLongitude, now)))
+                .toList();
+    }
+
+    private List<RankedPost> rank(
+            UserEntity user,
+            List<Long> followingsIds,
+            Double userLatitude,
+            Double userLongitude
+    ) {
+        // Candidatos: mejores scores base + publicaciones recientes de seguidos
+        Map<Long, PostEntity> candidates = new LinkedHashMap<>();
+        postRepository.findByActiveTrueAndUserAccount_IdNotOrderByBaseScoreDescIdDesc(user.getId(), PageRequest.of(0, candidateLimit))
+                .forEach(post -> candidates.put(post.getId(), post));
+        if (!followingsIds.isEmpty()) {
+            postRepository.findByActiveTrueAndUserAccount_IdInOrderByPublicationDateDesc(followingsIds, PageRequest.of(0, candidateLimit))
+                    .stream()
+                    .filter(post -> !post.getUserAccount().getId().equals(user.getId()))
+                    .forEach(post -> candidates.putIfAbsent(post.getId(), post));
+        }
+
+        Set<Long> followings = new HashSet<>(followingsIds);
+        boolean useLocation = useLocation(user, userLatitude, userLongitude);
+        LocalDateTime now = LocalDateTime.now();
+
+        return candidates.values().stream()
+                .map(post -> new RankedPost(post, relevance(post, user, followings, useLocation, userLatitude, userLongitude, now)))
+                .sorted(Comparator.comparingDouble(RankedPost::score)
+                        .reversed()
+                        .thenComparing(ranked -> ranked.post().getId(), Comparator.reverseOrder()))
+                .toList();
+    }
+
+    private boolean useLocation(UserEntity user, Double userLatitude, Double userLongitude) {
+        return Boolean.TRUE.equals(user.getUseLocationForRecommendations())
+                && userLatitude != null && userLongitude != null
+                && userLatitude != 0.0 && userLongitude != 0.0;
+    }
+
+    /**
+     * Score independiente del usuario: verificación * (tiempo + comentarios + bonus de verificado)
+     */
+    private double computeBaseScore(PostScoreSourceDTO source, LocalDateTime now) {
+        long commentCount = source.commentCount() != null ? source.commentCount() : 0;
+        boolean verified = Boolean.TRUE.equals(source.isVerified());
+        long hoursSincePublication = source.publicationDate() != null
+                ? Math.max(0, Duration.between(source.publicationDate(), now).toHours())
+                : 0;
+        double timeFactor = 1.0 / (hoursSincePublication + 1);
+        double verifiedBonus = verified ? VERIFIED_BONUS : 0.0;
+        return verificationFactor(verified) * (timeFactor * TIME_WEIGHT
+                + commentCount * COMMENTS_WEIGHT
+                + verifiedBonus * VERIFIED_BONUS_WEIGHT);
+    }
+
+    /**
+     * Aplica los multiplicadores por usuario (marca, usado/nuevo, ubicación, seguidos) sobre el score base
+     */
+    private double relevance(
+            PostEntity post,
+            UserEntity user,
+            Set<Long> followings,
+            boolean useLocation,
+            Double userLatitude,
+            Double userLongitude,
+            LocalDateTime now
+    ) {
+        boolean verified = Boolean.TRUE.equals(post.getIsVerified());
+        double baseScore = post.getBaseScore() != null
+                ? post.getBaseScore()
+                : computeBaseScore(new PostScoreSourceDTO(post.getId(), post.getPublicationDate(), post.getIsVerified(), post.getCommentCount()), now);
+
+        String preferredBrand = user.getPreferredBrand();
+        double brandFactor = preferredBrand != null && !preferredBrand.isEmpty() && preferredBrand.equals(post.getMake())
+                ? PREFERENCE_BOOST : 1.0;
+
+        double proximityScore = 1.0;
+        double locationFactor = 1.0;
+        PostLocationEntity location = post.getLocation();
+        if (useLocation && location != null && location.getLat() != null && location.getLng() != null) {
+            double distance = Math.sqrt(
+                    Math.pow(location.getLat().doubleValue() - userLatitude, 2)
+                            + Math.pow(location.getLng().doubleValue() - userLongitude, 2));
+            proximityScore = 1.0 / (distance + 1);
+            locationFactor = distance < NEARBY_DISTANCE ? PREFERENCE_BOOST : 1.0;
+        }
+
+        double relationshipFactor = followings.contains(post.getUserAccount().getId()) ? PREFERENCE_BOOST : 1.0;
+
+        return brandFactor
+                * usedNewFactor(user, post)
+                * locationFactor
+                * relationshipFactor
+                * (baseScore + verificationFactor(verified) * proximityScore * PROXIMITY_WEIGHT);
+    }
+
+    private double usedNewFactor(UserEntity user, PostEntity post) {
+        boolean wantsUsed = Boolean.TRUE.equals(user.getWantsUsedCars());
+        boolean wantsNew = Boolean.TRUE.equals(user.getWantsNewCars());
+        if (wantsUsed && !wantsNew) {
+            return Boolean.TRUE.equals(post.getIsUsed()) ? PREFERENCE_BOOST : 1.0;
+        }
+        if (!wantsUsed && wantsNew) {
+            return Boolean.FALSE.equals(post.getIsUsed()) ? PREFERENCE_BOOST : 1.0;
+        }
+        return wantsUsed ? INDIFFERENT_USED_NEW_BOOST : 1.0;
+    }
+
+    private double verificationFactor(boolean verified) {
+        return verified ? VERIFIED_FACTOR : 1.0;
+    }
+}
@@ -3,13 +3,17 @@ package org.cinos.core.posts.service.impl;
 import org.cinos.core.mail.models.SendEmailRequest;
 import org.cinos.core.mail.service.MailService;
 import org.cinos.core.posts.controller.request.PostCreateRequest;
+import org.cinos.core.posts.dto.CursorPageDTO;
 import org.cinos.core.posts.dto.PostDTO;
 import org.cinos.core.posts.dto.PostFeedDTO;
 import org.cinos.core.posts.dto.PostFilterDTO;
 import org.cinos.core.posts.dto.PostProfileDTO;
 import org.cinos.core.posts.dto.mapper.PostMapper;
 import org.cinos.core.posts.entity.*;
+import org.cinos.core.posts.events.PostCreateEvent;
 import org.cinos.core.posts.models.DocumentationStatus;
+import org.cinos.core.posts.models.FeedEngineType;
+import org.cinos.core.posts.models.PublicationStatus;
 import org.cinos.core.posts.models.VerificationStatus;
 import org.cinos.core.posts.repository.PostImageRepository;
 import org.cinos.core.posts.repository.PostLocationRepository;
@@ -18,38 +22,50 @@ import org.cinos.core.technical_verification.repository.TechnicalVerificationRep
 import org.cinos.core.posts.repository.specs.PostSpecifications;
 import org.cinos.core.posts.service.IMakeService;
 import org.cinos.core.posts.service.IModelService;
+import org.cinos.core.posts.service.IPostScoreService;
 import org.cinos.core.posts.service.IPostService;
+import org.cinos.core.posts.utils.PostCursor;
 import org.cinos.core.posts.utils.exceptions.PostNotFoundException;
 import org.cinos.core.follows.service.IFollowService;
 import org.cinos.core.technical_verification.entity.TechnicalVerification;
-import org.cinos.core.users.dto.UserDTO;
 import org.cinos.core.users.service.impl.AccountService;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.cinos.core.users.service.impl.UserService;
-import org.cinos.core.notifications.service.AutomaticNotificationService;
+import org.cinos.core.notifications.service.NotificationOutboxService;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PostService implements IPostService {
 
     private final PostRepository postRepository;
     private final IFollowService followService;
     private final String POST_NOT_FOUND = "La publicacion no se encontró";
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
     private final StorageService storageService;
     private final PostImageRepository postImageRepository;
     private final PostLocationRepository postLocationRepository;
@@ -60,8 +76,20 @@ public class PostService implements IPostService {
     private final MailService mailService;
     private final TechnicalVerificationRepository technicalVerificationRepository;
     private final UserService userService;
-    private final AutomaticNotificationService automaticNotificationService;
+    private final NotificationOutboxService notificationOutboxService;
     private final ImageProcessingService imageProcessingService;
+    private final IPostScoreService postScoreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostPublishWorker postPublishWorker;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> feedTimers = new ConcurrentHashMap<>();
+
+    @Value("${posts.feed.engine:SPEC}")
+    private FeedEngineType defaultFeedEngine;
+
+    @Value("${posts.cursor.page-size:20}")
+    private int cursorPageSize;
 
     @Override
     public List<PostDTO> getPostPageable(Integer page, Integer size) {
@@ -74,66 +102,137 @@ public class PostService implements IPostService {
             Long userId,
             Pageable pageable,
             Double userLatitude,
-            Double userLongitude
+            Double userLongitude,
+            FeedEngineType engine
     ) throws UserNotFoundException {
-        List<UserDTO> followings = followService.getFollowings(userId);
-        List<Long> followingsIds = followings.stream().map(UserDTO::id).toList();
+        long start = System.nanoTime();
+        FeedEngineType feedEngine = engine != null ? engine : defaultFeedEngine;
+        List<Long> followingsIds = followService.getFollowingIds(userId);
 
         // Obtener preferencias del usuario
         var user = userService.getByIdEntity(userId);
-        String preferredBrand = user.getPreferredBrand();
-        Boolean wantsUsedCars = user.getWantsUsedCars();
-        Boolean wantsNewCars = user.getWantsNewCars();
-        Boolean useLocationForRecommendations = user.getUseLocationForRecommendations();
 
-        // Especificación con timeFactor, comentarios, ubicación, relación y preferencias
-        Specification<PostEntity> spec = PostSpecifications.postFeedSpec(
+        Page<PostEntity> postEntityPage;
+        if (feedEngine == FeedEngineType.PRECOMPUTED) {
+            // Score base materializado + multiplicadores del usuario sobre candidatos acotados
+            postEntityPage = postScoreService.getRankedFeed(user, followingsIds, userLatitude, userLongitude, pageable);
+        } else {
+            // Especificación con timeFactor, comentarios, ubicación, relación y preferencias
+            Specification<PostEntity> spec = PostSpecifications.postFeedSpec(
+                    followingsIds,
+                    userLatitude,
+                    userLongitude,
+                    userId,
+                    user.getPreferredBrand(),
+                    user.getWantsUsedCars(),
+                    user.getWantsNewCars(),
+                    user.getUseLocationForRecommendations()
+            );
+
+            // Obtener publicaciones paginadas y ordenadas por relevancia
+            postEntityPage = postRepository.findAll(spec, pageable);
+        }
+        long elapsed = System.nanoTime() - start;
+        feedTimer(feedEngine == FeedEngineType.PRECOMPUTED ? "score" : "spec", "offset").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Feed {} para usuario {} (pagina {}) resuelto en {} ms",
+                feedEngine, userId, pageable.getPageNumber(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        // Mapear a DTO
+        return postEntityPage.map(this::toFeedDTO);
+    }
+
+    @Override
+    public CursorPageDTO<PostFeedDTO> getFeedPostsCursor(
+            Long userId,
+            String cursor,
+            Integer size,
+            Double userLatitude,
+            Double userLongitude
+    ) throws UserNotFoundException {
+        long start = System.nanoTime();
+        PostCursor after = PostCursor.decode(cursor);
+        size = pageSize(size);
+        List<Long> followingsIds = followService.getFollowingIds(userId);
+        var user = userService.getByIdEntity(userId);
+
+        // El cursor guarda (base_score, id) de la última fila leída: columnas persistidas, no la relevancia calculada
+        List<IPostScoreService.RankedPost> ranked = postScoreService.getRankedFeedAfter(
+                user,
                 followingsIds,
                 userLatitude,
                 userLongitude,
-                userId,
-                preferredBrand,
-                wantsUsedCars,
-                wantsNewCars,
-                useLocationForRecommendations
+                after != null ? after.sortKeyAsDouble() : null,
+                after != null ? after.id() : null,
+                size + 1
         );
+        long elapsed = System.nanoTime() - start;
+        feedTimer("score", "cursor").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Feed por cursor para usuario {} resuelto en {} ms", userId, TimeUnit.NANOSECONDS.toMillis(elapsed));
 
-        // Obtener publicaciones paginadas y ordenadas por relevancia
-        Page<PostEntity> postEntityPage = postRepository.findAll(spec, pageable);
+        boolean hasNext = ranked.size() > size;
+        List<IPostScoreService.RankedPost> content = hasNext ? ranked.subList(0, size) : ranked;
+        PostEntity last = content.isEmpty() ? null : content.get(content.size() - 1).post();
+        // Dentro de la página se ordena por la relevancia del usuario
+        return CursorPageDTO.<PostFeedDTO>builder()
+                .content(content.stream()
+                        .sorted(Comparator.comparingDouble(IPostScoreService.RankedPost::score).reversed())
+                        .map(rankedPost -> toFeedDTO(rankedPost.post()))
+                        .toList())
+                .nextCursor(hasNext ? new PostCursor(String.valueOf(last.getBaseScore()), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
 
-        // Mapear a DTO
-        return postEntityPage.map((e) -> {
-            String userFullName = e.getUserAccount().getUser().getName() + " " + e.getUserAccount().getUser().getLastname();
-            return PostFeedDTO.builder()
-                    .id(e.getId())
-                    .model(e.getModel())
-                    .price(e.getPrice())
-                    .year(e.getYear())
-                    .make(e.getMake())
-                    .isUsed(e.getIsUsed())
-                    .userFullName(userFullName)
-                    .publicationDate(e.getPublicationDate().atZone(ZoneId.systemDefault()))
-                    .imagesUrls(e.getImages().stream().map(PostImageEntity::getUrl).toList())
-                    .currencySymbol(e.getCurrencySymbol())
-                    .location(postMapper.toLocationDTO(e.getLocation()))
-                    .kilometers(e.getKilometers())
-                    .userId(e.getUserAccount().getId())
-                    .isVerified(e.getIsVerified())
-                    .build();
-        });
+    /**
+     * Latencia del feed por motor (spec | score) y tipo de paginación, con percentiles para comparar p99
+     */
+    private Timer feedTimer(String engine, String paging) {
+        return feedTimers.computeIfAbsent(engine + ":" + paging, key -> Timer.builder("feed.latency")
+                .description("Tiempo de resolución del feed")
+                .tag("engine", engine)
+                .tag("paging", paging)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
     }
 
     @Override
     public Page<PostDTO> getFollowingsPosts(Long userId, Pageable pageable) throws UserNotFoundException {
-        List<UserDTO> followings = followService.getFollowings(userId);
-        List<Long> followingsIds = followings.stream().map(UserDTO::id).toList();
-        return postRepository.findAllByUserAccount_IdInOrderByPublicationDateDesc(followingsIds, pageable).map(postMapper::toDTO);
+        List<Long> followingsIds = followService.getFollowingIds(userId);
+        return postRepository.findAllByUserAccount_IdInAndActiveTrueOrderByPublicationDateDesc(followingsIds, pageable).map(postMapper::toDTO);
+    }
+
+    @Override
+    public CursorPageDTO<PostDTO> getFollowingsPostsCursor(Long userId, String cursor, Integer size) throws UserNotFoundException {
+        List<Long> followingsIds = followService.getFollowingIds(userId);
+        if (followingsIds.isEmpty()) {
+            return CursorPageDTO.<PostDTO>builder().content(List.of()).hasNext(false).build();
+        }
+
+        PostCursor after = PostCursor.decode(cursor);
+        size = pageSize(size);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<PostEntity> posts;
+        if (after == null) {
+            posts = postRepository.findByUserAccount_IdInAndActiveTrueOrderByPublicationDateDescIdDesc(followingsIds, limit);
+        } else if (after.sortKey() == null) {
+            // El cursor quedó en una publicación sin fecha: solo quedan las demás sin fecha
+            posts = postRepository.findFollowingsPostsWithoutDateAfter(followingsIds, after.id(), limit);
+        } else {
+            posts = postRepository.findFollowingsPostsAfter(followingsIds, after.sortKeyAsDateTime(), after.id(), limit);
+        }
+
+        boolean hasNext = posts.size() > size;
+        List<PostEntity> content = hasNext ? posts.subList(0, size) : posts;
+        PostEntity last = content.isEmpty() ? null : content.get(content.size() - 1);
+        return CursorPageDTO.<PostDTO>builder()
+                .content(content.stream().map(postMapper::toDTO).toList())
+                .nextCursor(hasNext ? new PostCursor(last.getPublicationDate() != null ? last.getPublicationDate().toString() : null, last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     public PostDTO getById(Long id) throws PostNotFoundException {
-        PostEntity postEntity = postRepository.findById(id).orElseThrow(() -> new PostNotFoundException(POST_NOT_FOUND));
-        PostDTO dto = postMapper.toDTO(postRepository.findById(id).orElseThrow(()->new PostNotFoundException(POST_NOT_FOUND)));
         return postMapper.toDTO(postRepository.findById(id).orElseThrow(()->new PostNotFoundException(POST_NOT_FOUND)));
     }
 
@@ -144,10 +243,49 @@ public class PostService implements IPostService {
 
     @Override
     public PostDTO createPost(PostCreateRequest request, List<MultipartFile> images) throws IOException, UserNotFoundException {
+        PostEntity postEntity = newPostEntity(request, Boolean.TRUE, PublicationStatus.PUBLISHED);
+
+        // Procesar imágenes con múltiples resoluciones (todas las imágenes y variantes en paralelo)
+        List<ImageProcessingService.ProcessedImage> processedImages;
+        try {
+            processedImages = imageProcessingService.processImages(images);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Error procesando imágenes del post - " + e.getMessage());
+        }
+
+        // Guardar la URL original como principal, respetando el orden de subida
+        List<PostImageEntity> imagesEntity = postPublishWorker.toImageEntities(postEntity, processedImages);
+        postEntity.setImages(imagesEntity);
+        // La notificación a usuarios premium se registra en el outbox en la misma transacción que el post
+        transactionTemplate.executeWithoutResult(status -> {
+            savePost(postEntity, request);
+            postImageRepository.saveAll(imagesEntity);
+            notificationOutboxService.enqueueNewPost(postEntity.getId());
+        });
+        eventPublisher.publishEvent(PostCreateEvent.builder()
+                .userId(request.userId())
+                .postId(postEntity.getId())
+                .build());
+
+        return postMapper.toDTO(postEntity);
+    }
+
+    @Override
+    public PostDTO createPostAsync(PostCreateRequest request, List<MultipartFile> images) throws IOException, UserNotFoundException {
+        // Las imágenes se guardan en disco y se procesan fuera del request; el post queda inactivo hasta terminar
+        List<ImageProcessingService.StagedImage> staged = postPublishWorker.stage(images);
+        PostEntity postEntity = newPostEntity(request, Boolean.FALSE, PublicationStatus.PROCESSING);
+        postEntity.setImages(new ArrayList<>());
+        savePost(postEntity, request);
+        postPublishWorker.submit(postEntity.getId(), staged);
+        return postMapper.toDTO(postEntity);
+    }
+
+    private PostEntity newPostEntity(PostCreateRequest request, Boolean active, PublicationStatus publicationStatus) throws UserNotFoundException {
         makeService.findByName(request.make()).orElseThrow(() -> new RuntimeException("Marca no encontrada"));
         modelService.findByName(request.model()).orElseThrow(() -> new RuntimeException("Modelo no encontrado"));
 
-        PostEntity postEntity = PostEntity.builder()
+        return PostEntity.builder()
                 .model(request.model())
                 .make(request.make())
                 .kilometers(request.kilometers())
@@ -158,44 +296,25 @@ public class PostService implements IPostService {
                 .price(request.price())
                 .userAccount(accountService.getAccountEntityById(request.userId()))
                 .publicationDate(LocalDateTime.now())
-                .active(Boolean.TRUE)
+                .active(active)
+                .publicationStatus(publicationStatus)
                 .currencySymbol(request.currencySymbol())
                 .documentationStatus(DocumentationStatus.NOT_PROVIDED)
                 .hp(request.hp())
                 .motor(request.motor())
                 .traccion(request.traccion())
+                .commentCount(0L)
                 .build();
+    }
 
+    /**
+     * Guarda el post junto con su ubicación y su verificación técnica inicial
+     */
+    private void savePost(PostEntity postEntity, PostCreateRequest request) {
         TechnicalVerification technicalVerification = TechnicalVerification.builder()
                 .post(postEntity)
                 .status(VerificationStatus.NOT_STARTED)
                 .build();
-        
-        // Procesar imágenes con múltiples resoluciones
-        List<PostImageEntity> imagesEntity = new ArrayList<>();
-        for (MultipartFile image : images) {
-            try {
-                // Obtener información de la imagen original
-                ImageProcessingService.ImageInfo imageInfo = imageProcessingService.getImageInfo(image);
-                
-                // Procesar imagen con múltiples resoluciones
-                Map<String, String> imageResolutions = imageProcessingService.processImageWithMultipleResolutions(image);
-                
-                // Guardar la URL original como principal
-                String originalUrl = imageResolutions.get("original");
-                PostImageEntity imageEntity = PostImageEntity.builder()
-                        .url(originalUrl)
-                        .post(postEntity)
-                        .build();
-                imagesEntity.add(imageEntity);
-                
-                // Guardar información de las dimensiones originales en metadata si es necesario
-                // Esto permitirá restaurar la imagen a su tamaño original más tarde
-                
-            } catch (Exception e) {
-                throw new RuntimeException("Error procesando imagen: " + image.getOriginalFilename() + " - " + e.getMessage());
-            }
-        }
 
         PostLocationEntity location = PostLocationEntity.builder()
                 .address(request.location().address())
@@ -204,31 +323,15 @@ public class PostService implements IPostService {
                 .post(postEntity)
                 .build();
 
-        postEntity.setImages(imagesEntity);
         postEntity.setLocation(location);
         postRepository.save(postEntity);
         technicalVerificationRepository.save(technicalVerification);
-        postImageRepository.saveAll(imagesEntity);
         postLocationRepository.save(location);
-        
-        // Enviar notificación a usuarios premium sobre el nuevo post
-        try {
-            automaticNotificationService.notifyNewPost(postEntity);
-        } catch (Exception e) {
-            // Log del error pero no fallar la creación del post
-            System.err.println("Error enviando notificación de nuevo post: " + e.getMessage());
-        }
-        
-        return postMapper.toDTO(postEntity);
     }
 
     @Override
     public List<PostProfileDTO> getPostsProfile(Long userId) throws UserNotFoundException {
-        List<PostEntity> posts = postRepository.findAllByUserAccount_IdAndActiveTrue(userId);
-        return posts.stream().map(e -> PostProfileDTO.builder()
-                .id(e.getId())
-                .firstImage(e.getImages().get(0).getUrl())
-                .build()).toList();
+        return postRepository.findProfileGridByAccountId(userId);
     }
 
     @Override
@@ -238,12 +341,7 @@ public class PostService implements IPostService {
 
     @Override
     public List<PostProfileDTO> getSavedPostsProfile(final Long userId) {
-        List<PostEntity> posts = postRepository.findByUsersSaved_Id(userId);
-        return posts.stream().map(e -> PostProfileDTO.builder()
-                .id(e.getId())
-                .firstImage(e.getImages().get(0).getUrl())
-                .build()).toList();
-
+        return postRepository.findSavedProfileGridByAccountId(userId);
     }
 
     @Override
@@ -324,6 +422,29 @@ public class PostService implements IPostService {
         return postPage.map(postMapper::toDTO);
     }
 
+    @Override
+    public CursorPageDTO<PostDTO> getPostsFilterCursor(PostFilterDTO postFilterDTO) {
+        PostCursor after = PostCursor.decode(postFilterDTO.cursor());
+        int size = pageSize(postFilterDTO.size());
+        Specification<PostEntity> spec = PostSpecifications.postFilterSpec(postFilterDTO)
+                .and(PostSpecifications.idLessThan(after != null ? after.id() : null));
+
+        // Orden por id descendente sin consulta COUNT: se pide un elemento extra para saber si hay más
+        List<PostEntity> posts = postRepository.findBy(spec, query -> query
+                .project("userAccount", "userAccount.user", "location", "technicalVerification")
+                .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = posts.size() > size;
+        List<PostEntity> content = hasNext ? posts.subList(0, size) : posts;
+        return CursorPageDTO.<PostDTO>builder()
+                .content(content.stream().map(postMapper::toDTO).toList())
+                .nextCursor(hasNext ? new PostCursor(null, content.get(content.size() - 1).getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
     @Override
     public List<PostDTO> searchPosts(String query) {
         if (query == null || query.trim().isEmpty()) {
@@ -336,4 +457,32 @@ public class PostService implements IPostService {
                 .toList();
     }
 
+    /**
+     * Tamaño de página de los listados por cursor: el configurado si no viene, acotado a [1, 100]
+     */
+    private int pageSize(Integer size) {
+        return size == null ? cursorPageSize : Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private PostFeedDTO toFeedDTO(PostEntity e) {
+        String userFullName = e.getUserAccount().getUser().getName() + " " + e.getUserAccount().getUser().getLastname();
+        return PostFeedDTO.builder()
+                .id(e.getId())
+                .model(e.getModel())
+                .price(e.getPrice())
+                .year(e.getYear())
+                .make(e.getMake())
+                .isUsed(e.getIsUsed())
+                .userFullName(userFullName)
+                .publicationDate(postMapper.mapPublicationDate(e.getPublicationDate()))
+                .imagesUrls(postMapper.mapImages(e.getImages()))
+                .currencySymbol(e.getCurrencySymbol())
+                .location(postMapper.toLocationDTO(e.getLocation()))
+                .kilometers(e.getKilometers())
+                .userId(e.getUserAccount().getId())
+                .isVerified(e.getIsVerified())
+                .commentCount(e.getCommentCount())
+                .build();
+    }
+
 }
@@ -1,12 +1,14 @@
 package org.cinos.core.posts.service.impl;
 
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Bucket;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 import lombok.RequiredArgsConstructor;
 import net.coobird.thumbnailator.Thumbnails;
 import net.coobird.thumbnailator.geometry.Positions;
+import org.cinos.core.posts.utils.ImageDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,6 +18,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,12 +76,23 @@ public class StorageService {
         return blob.getMediaLink();
     }
 
+    /**
+     * Sube contenido ya procesado tal cual, sin decodificar ni recomprimir la imagen
+     */
+    public String uploadBytes(byte[] content, String fileName, String contentType) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, fileName).setContentType(contentType).build();
+        return storage.create(blobInfo, content).getMediaLink();
+    }
+
     /**
      * Procesa y optimiza una imagen antes de subirla
      */
     private byte[] processAndOptimizeImage(MultipartFile file) throws IOException {
-        // Leer la imagen original
-        BufferedImage originalImage = ImageIO.read(file.getInputStream());
+        // Leer la imagen original, submuestreada si supera ampliamente el tamaño máximo
+        BufferedImage originalImage;
+        try (InputStream inputStream = file.getInputStream()) {
+            originalImage = ImageDecoder.decode(inputStream, MAX_WIDTH, MAX_HEIGHT).image();
+        }
         
         if (originalImage == null) {
             throw new IllegalArgumentException("No se pudo leer la imagen: " + file.getOriginalFilename());
@@ -153,7 +167,7 @@ public class StorageService {
      * Crea una miniatura de la imagen
      */
     public byte[] createThumbnail(byte[] originalImageBytes) throws IOException {
-        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(originalImageBytes));
+        BufferedImage originalImage = ImageDecoder.decode(new ByteArrayInputStream(originalImageBytes), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT).image();
         
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         
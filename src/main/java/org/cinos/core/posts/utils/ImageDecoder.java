@@ -0,0 +1,92 @@
+package org.cinos.core.posts.utils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodificación de imágenes acotada al tamaño de destino: lee las dimensiones del encabezado
+ * y, si la imagen es mucho más grande que el destino, decodifica con submuestreo de la fuente
+ * para no materializar la resolución completa de la cámara en memoria.
+ */
+public final class ImageDecoder {
+
+    private ImageDecoder() {
+    }
+
+    /**
+     * Imagen decodificada junto con las dimensiones reales del archivo
+     */
+    public record DecodedImage(BufferedImage image, int sourceWidth, int sourceHeight) {}
+
+    /**
+     * Dimensiones de la imagen según el encabezado, sin decodificar los píxeles
+     */
+    public record Dimensions(int width, int height) {}
+
+    /**
+     * Decodifica la imagen con un factor de submuestreo entero tal que el resultado siga siendo
+     * igual o mayor al tamaño que entra en maxWidth x maxHeight; el ajuste fino lo hace luego el redimensionado
+     */
+    public static DecodedImage decode(InputStream inputStream, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream imageStream = ImageIO.createImageInputStream(inputStream)) {
+            ImageReader reader = readerFor(imageStream);
+            try {
+                reader.setInput(imageStream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = subsamplingFactor(width, height, maxWidth, maxHeight);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return new DecodedImage(reader.read(0, param), width, height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Lee solo el encabezado de la imagen para obtener sus dimensiones
+     */
+    public static Dimensions readDimensions(InputStream inputStream) throws IOException {
+        try (ImageInputStream imageStream = ImageIO.createImageInputStream(inputStream)) {
+            ImageReader reader = readerFor(imageStream);
+            try {
+                reader.setInput(imageStream, true, true);
+                return new Dimensions(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Mayor factor entero que no deja la imagen por debajo del tamaño de destino (1 = sin submuestreo)
+     */
+    static int subsamplingFactor(int width, int height, int maxWidth, int maxHeight) {
+        if (width <= maxWidth && height <= maxHeight) {
+            return 1;
+        }
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return Math.max(1, (int) Math.floor(1 / scale));
+    }
+
+    private static ImageReader readerFor(ImageInputStream imageStream) {
+        if (imageStream == null) {
+            throw new IllegalArgumentException("No se pudo leer la imagen");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+        if (!readers.hasNext()) {
+            throw new IllegalArgumentException("Formato de imagen no soportado");
+        }
+        return readers.next();
+    }
+}
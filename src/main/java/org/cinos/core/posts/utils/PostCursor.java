@@ -0,0 +1,61 @@
+package org.cinos.core.posts.utils;
+
+import org.cinos.core.posts.utils.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginación por keyset: último valor de orden + id de desempate.
+ * Un cursor mal formado o adulterado lanza InvalidCursorException (400)
+ */
+public record PostCursor(String sortKey, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (sortKey != null ? sortKey : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            String sortKey = raw.substring(0, separatorIndex);
+            return new PostCursor(sortKey.isEmpty() ? null : sortKey, Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw invalid(cursor, e);
+        }
+    }
+
+    /**
+     * Valor de orden como número, o null si el cursor no lo tiene
+     */
+    public Double sortKeyAsDouble() {
+        try {
+            return sortKey != null ? Double.valueOf(sortKey) : null;
+        } catch (NumberFormatException e) {
+            throw invalid(encode(), e);
+        }
+    }
+
+    /**
+     * Valor de orden como fecha, o null si el cursor no lo tiene (publicaciones sin fecha)
+     */
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return sortKey != null ? LocalDateTime.parse(sortKey) : null;
+        } catch (RuntimeException e) {
+            throw invalid(encode(), e);
+        }
+    }
+
+    private static InvalidCursorException invalid(String cursor, Throwable cause) {
+        return new InvalidCursorException("Cursor inválido: " + cursor, cause);
+    }
+}
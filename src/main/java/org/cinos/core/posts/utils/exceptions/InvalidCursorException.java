@@ -0,0 +1,7 @@
+package org.cinos.core.posts.utils.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package org.cinos.core.posts.utils.exceptions;
+
+public class PublishQueueFullException extends RuntimeException {
+    public PublishQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -8,6 +8,8 @@ import com.stripe.model.*;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.cinos.core.auth.service.PrincipalCache;
+import org.cinos.core.notifications.service.PremiumSubscriptionIndex;
 import org.cinos.core.posts.entity.PostEntity;
 import org.cinos.core.stripe.dto.*;
 import org.cinos.core.stripe.entity.PaymentDetail;
@@ -16,12 +18,10 @@ import org.cinos.core.stripe.service.StripeService;
 import org.cinos.core.users.entity.UserEntity;
 import org.cinos.core.users.model.Role;
 import org.cinos.core.users.repository.UserRepository;
+import org.cinos.core.users.service.IUserService;
 import org.cinos.core.posts.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import java.util.ArrayList;
@@ -39,6 +39,9 @@ public class SubscriptionController {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final PaymentDetailRepository paymentDetailRepository;
+    private final PrincipalCache principalCache;
+    private final PremiumSubscriptionIndex premiumSubscriptionIndex;
+    private final IUserService userService;
 
     @Value("${stripe.webhook.secret}")
     private String endpointSecret;
@@ -62,8 +65,7 @@ public class SubscriptionController {
     public ResponseEntity<SubscriptionResponse> getSubscriptionDetails() {
         try {
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
             
             System.out.println("🔍 Verificando suscripción para usuario: " + userEntity.getEmail());
             System.out.println("🔍 StripeSubscriptionId: " + userEntity.getStripeSubscriptionId());
@@ -118,8 +120,7 @@ public class SubscriptionController {
     public ResponseEntity<SubscriptionResponse> cancelSubscription() {
         try {
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
             
             if (userEntity.getStripeSubscriptionId() == null || userEntity.getStripeSubscriptionId().isEmpty()) {
                 return ResponseEntity.badRequest()
@@ -154,8 +155,7 @@ public class SubscriptionController {
     public ResponseEntity<SubscriptionResponse> reactivateSubscription() {
         try {
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
             
             if (userEntity.getStripeSubscriptionId() == null || userEntity.getStripeSubscriptionId().isEmpty()) {
                 return ResponseEntity.badRequest()
@@ -197,8 +197,7 @@ public class SubscriptionController {
     public ResponseEntity<SubscriptionResponse> getSubscriptionStatus() {
         try {
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
             
             boolean isPremium = userEntity.getRoles() != null && userEntity.getRoles().contains(Role.PREMIUM);
             String status = isPremium ? "premium" : "free";
@@ -286,8 +285,7 @@ public class SubscriptionController {
                                 .build());
             }
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
             String email = userEntity.getEmail();
             // PriceId real de Stripe
             String priceId = request.getPlanId();
@@ -315,8 +313,7 @@ public class SubscriptionController {
             }
 
             // Obtener usuario autenticado
-            UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-            UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+            UserEntity userEntity = userService.getLoggedUserEntity();
 
             String successUrl = "http://localhost:8100/verification-details/" + request.postId() + "?justBought=true";
 
@@ -374,6 +371,7 @@ public class SubscriptionController {
                         if (!user.getUnlockedTechnicalVerifications().contains(post)) {
                             user.getUnlockedTechnicalVerifications().add(post);
                             userRepository.save(user);
+                            principalCache.invalidate(user.getUsername());
                             log.info("\uD83D\uDD13 Acceso a verificación desbloqueado para usuario: {} y post: {}", user.getEmail(), postId);
                         } else {
                             log.warn("Usuario ya tenía acceso a esta verificación: {} y post: {}", user.getEmail(), postId);
@@ -392,6 +390,8 @@ public class SubscriptionController {
                     user.setTechnicalVerificationCredits(1); // Resetear créditos
                     user.setTechnicalVerificationReportsCredits(3);
                     userRepository.save(user);
+                    principalCache.invalidate(user.getUsername());
+                    premiumSubscriptionIndex.update(user);
                     log.info("🚀 Usuario actualizado a PREMIUM y créditos reseteados: {}", user.getEmail());
                 }
             } else {
@@ -412,6 +412,8 @@ public class SubscriptionController {
                 }
                 user.setStripeSubscriptionId(null);
                 userRepository.save(user);
+                principalCache.invalidate(user.getUsername());
+                premiumSubscriptionIndex.update(user);
                 System.out.println("🚨 Rol PREMIUM removido y subscriptionId limpiado para usuario: " + user.getEmail());
             } else {
                 System.err.println("❌ Usuario no encontrado con subscriptionId: " + subscriptionId);
@@ -440,6 +442,8 @@ public class SubscriptionController {
                     if (!user.getRoles().contains(Role.PREMIUM)) {
                         user.getRoles().add(Role.PREMIUM);
                         userRepository.save(user);
+                        principalCache.invalidate(user.getUsername());
+                        premiumSubscriptionIndex.update(user);
                         System.out.println("🚀 Rol PREMIUM agregado para usuario: " + user.getEmail());
                     }
                 }
@@ -482,9 +486,9 @@ public class SubscriptionController {
      */
     @PostMapping("/buy-verification-access")
     public ResponseEntity<Map<String, String>> buyVerificationAccess(
-            @RequestBody BuyVerificationAccessRequest request,
-            @AuthenticationPrincipal UserEntity user) {
+            @RequestBody BuyVerificationAccessRequest request) {
         try {
+            UserEntity user = userService.getLoggedUserEntity();
             String clientSecret = stripeService.createVerificationAccessPaymentIntent(request.postId(), user);
             return ResponseEntity.ok(Map.of("clientSecret", clientSecret));
         } catch (Exception e) {
@@ -33,6 +33,7 @@ import org.cinos.core.posts.repository.PostRepository;
 import org.cinos.core.users.repository.UserRepository;
 import org.cinos.core.posts.entity.PostEntity;
 import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.auth.model.AuthenticatedUser;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -131,8 +132,7 @@ public class UserController {
     @GetMapping("/premium/stats")
     public ResponseEntity<PremiumStatsResponse> getPremiumStats() throws StripeException, UserNotFoundException {
         // Obtener usuario logueado
-        var authentication = (org.springframework.security.authentication.UsernamePasswordAuthenticationToken) org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (org.cinos.core.users.entity.UserEntity) authentication.getPrincipal();
+        UserEntity userEntity = userService.getLoggedUserEntity();
 
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
         java.time.LocalDateTime endOfPeriod;
@@ -167,7 +167,7 @@ public class UserController {
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping("/technical-verification-access/{postId}")
     public ResponseEntity<Boolean> hasTechnicalVerificationAccess(
-            @AuthenticationPrincipal UserEntity principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long postId) {
         UserEntity user = userRepository.findById(principal.getId()).orElseThrow();
         PostEntity post = postRepository.findById(postId).orElseThrow();
@@ -178,7 +178,7 @@ public class UserController {
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @PostMapping("/technical-verification-access/{postId}")
     public ResponseEntity<?> unlockTechnicalVerificationAccess(
-            @AuthenticationPrincipal UserEntity principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long postId) {
         UserEntity user = userRepository.findById(principal.getId()).orElseThrow();
         PostEntity post = postRepository.findById(postId).orElseThrow();
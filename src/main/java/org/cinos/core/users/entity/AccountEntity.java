@@ -2,6 +2,7 @@ package org.cinos.core.users.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.cinos.core.posts.entity.PostEntity;
 
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.List;
 @Entity
 @Getter @Setter @Builder @AllArgsConstructor @NoArgsConstructor
 @Table(name = "ACCOUNTS")
+@BatchSize(size = 50)
 public class AccountEntity {
     @Id
     private Long id;
@@ -1,5 +1,6 @@
 package org.cinos.core.users.entity;
 
+import org.cinos.core.auth.model.AuthenticatedUser;
 import org.cinos.core.users.model.Role;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,13 +15,14 @@ import java.util.List;
 import org.cinos.core.posts.entity.PostEntity;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Getter
 @Setter
 @Table(name = "USERS")
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class UserEntity implements UserDetails {
+public class UserEntity implements UserDetails, AuthenticatedUser {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,23 @@
+package org.cinos.core.users.entity;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.cinos.core.auth.service.PrincipalCache;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Invalida el principal cacheado cuando se actualiza o elimina un usuario (al confirmarse la transacción).
+ * Los cambios que solo tocan colecciones (roles) no disparan @PostUpdate y se invalidan explícitamente.
+ */
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    @PostUpdate
+    @PostRemove
+    void invalidatePrincipal(UserEntity user) {
+        principalCache.ifAvailable(cache -> cache.invalidate(user.getUsername()));
+    }
+}
@@ -1,7 +1,11 @@
 package org.cinos.core.users.repository;
 
 import org.cinos.core.users.entity.AccountEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,4 +13,36 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
     Optional<AccountEntity> findByUser_Id(Long id);
     List<AccountEntity> findByUser_UsernameContainingIgnoreCase(String username);
+
+    @Query("SELECT a.user.username FROM AccountEntity a WHERE a.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE AccountEntity a SET a.followers = COALESCE(a.followers, 0) + 1 WHERE a.id = :id")
+    int incrementFollowers(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE AccountEntity a SET a.followings = COALESCE(a.followings, 0) + 1 WHERE a.id = :id")
+    int incrementFollowings(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE AccountEntity a SET a.followers = CASE WHEN a.followers > 0 THEN a.followers - 1 ELSE 0 END WHERE a.id = :id")
+    int decrementFollowers(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE AccountEntity a SET a.followings = CASE WHEN a.followings > 0 THEN a.followings - 1 ELSE 0 END WHERE a.id = :id")
+    int decrementFollowings(@Param("id") Long id);
+
+    @Query("SELECT a.id, a.followers, a.followings FROM AccountEntity a WHERE a.id > :lastId ORDER BY a.id")
+    List<Object[]> findFollowCounters(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Solo corrige si los contadores siguen con el valor leído; si un follow concurrente los movió, se omite
+    @Modifying
+    @Query("UPDATE AccountEntity a SET a.followers = :followers, a.followings = :followings WHERE a.id = :id " +
+           "AND COALESCE(a.followers, 0) = :seenFollowers AND COALESCE(a.followings, 0) = :seenFollowings")
+    int updateFollowCounters(@Param("id") Long id,
+                             @Param("followers") Long followers,
+                             @Param("followings") Long followings,
+                             @Param("seenFollowers") Long seenFollowers,
+                             @Param("seenFollowings") Long seenFollowings);
 }
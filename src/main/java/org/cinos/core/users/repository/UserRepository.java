@@ -47,6 +47,13 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
         @Param("condition") String condition
     );
 
+    /**
+     * Id y preferencias de notificación de los usuarios premium, sin cargar las entidades
+     */
+    @Query("SELECT u.id, u.premiumNotificationBrand, u.premiumNotificationModel, u.premiumNotificationCondition " +
+           "FROM UserEntity u WHERE :role MEMBER OF u.roles")
+    List<Object[]> findPremiumNotificationPreferences(@Param("role") Role role);
+
     /**
      * Encuentra todos los usuarios premium
      */
@@ -14,13 +14,24 @@ import java.util.List;
 public interface IAccountService {
     void createUserAccount(UserEntity user) throws UserNotFoundException;
     AccountDTO getUserAccount(Long id) throws UserNotFoundException;
-    void incrementFollowings(Long fromUserId);
-    void incrementFollowers(Long toUserId);
+    boolean incrementFollowings(Long fromUserId);
+    boolean incrementFollowers(Long toUserId);
     AccountDTO getUserLoggedAccount();
     AccountEntity getAccountEntityById(Long id) throws UserNotFoundException;
 
+    /**
+     * Referencia a la cuenta sin consultarla, para asociarla a otras entidades
+     */
+    AccountEntity getAccountReference(Long id);
+
+    /**
+     * Solo el username de la cuenta, sin cargar la cuenta ni el usuario
+     */
+    String getUsername(Long accountId) throws UserNotFoundException;
+
     void decrementFollowings(Long fromUserId);
-    void decrementFollowers(Long fromUserId);
+    void decrementFollowers(Long toUserId);
+    int reconcileFollowCounts();
     List<AccountEntity> findByUsernameContainingIgnoreCase(String query);
     void updateUserAccount(UpdateAccountDTO accountDTO, MultipartFile file) throws UserNotFoundException, IOException;
     void updateContactInfo(ContactInfoDTO contactInfo);
@@ -26,6 +26,7 @@ public interface IUserService {
     UserEntity getByUsernameEntity(String username) throws UserNotFoundException;
     UserEntity getByIdEntity(Long id) throws UserNotFoundException;
     UserDTO getLoggedUser();
+    UserEntity getLoggedUserEntity();
     String generateVerificationCode();
     LocalDateTime sendVerificationCode(String email) throws UserNotFoundException, EmailExistException;
     VerifyCodeResponse verifyCode(VerifyCodeRequest verifyCodeRequest) throws UserNotFoundException;
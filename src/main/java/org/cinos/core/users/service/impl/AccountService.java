@@ -1,5 +1,7 @@
 package org.cinos.core.users.service.impl;
 
+import org.cinos.core.auth.model.AuthenticatedUser;
+import org.cinos.core.follows.repository.FollowRepository;
 import org.cinos.core.posts.service.impl.StorageService;
 import org.cinos.core.users.dto.AccountDTO;
 import org.cinos.core.users.dto.ContactInfoDTO;
@@ -10,21 +12,31 @@ import org.cinos.core.users.repository.AccountRepository;
 import org.cinos.core.users.service.IAccountService;
 import org.cinos.core.users.utils.exceptions.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AccountService implements IAccountService {
 
     private final AccountRepository accountRepository;
     private final StorageService storageService;
+    private final FollowRepository followRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int RECONCILE_BATCH_SIZE = 1000;
 
     @Override
     public void createUserAccount(final UserEntity user) {
@@ -61,24 +73,24 @@ public class AccountService implements IAccountService {
                 .build();
     }
 
+    /**
+     * UPDATE atómico sobre el contador; devuelve false si la cuenta no existe
+     */
     @Override
-    public void incrementFollowings(Long fromUserId) {
-        AccountEntity account = accountRepository.findById(fromUserId).orElseThrow(()->new UsernameNotFoundException("Usuario no encontrado"));
-        account.setFollowings(account.getFollowings() + 1);
-        accountRepository.save(account);
+    @Transactional
+    public boolean incrementFollowings(Long fromUserId) {
+        return accountRepository.incrementFollowings(fromUserId) > 0;
     }
 
     @Override
-    public void incrementFollowers(Long toUserId) {
-        AccountEntity account = accountRepository.findById(toUserId).orElseThrow(()->new UsernameNotFoundException("Usuario no encontrado"));
-        account.setFollowers(account.getFollowers() + 1);
-        accountRepository.save(account);
+    @Transactional
+    public boolean incrementFollowers(Long toUserId) {
+        return accountRepository.incrementFollowers(toUserId) > 0;
     }
 
     @Override
     public AccountDTO getUserLoggedAccount() {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        AuthenticatedUser userEntity = AuthenticatedUser.current();
         AccountEntity accountEntity = accountRepository.findById(userEntity.getId()).orElseThrow(()->new UsernameNotFoundException("Usuario no encontrado"));
         return AccountDTO.builder()
                 .id(accountEntity.getId())
@@ -103,17 +115,58 @@ public class AccountService implements IAccountService {
     }
 
     @Override
+    @Transactional
     public void decrementFollowings(Long fromUserId) {
-        AccountEntity account = accountRepository.findById(fromUserId).orElseThrow(()->new UsernameNotFoundException("Usuario no encontrado"));
-        account.setFollowings(account.getFollowings() - 1);
-        accountRepository.save(account);
+        accountRepository.decrementFollowings(fromUserId);
     }
 
     @Override
+    @Transactional
     public void decrementFollowers(Long toUserId) {
-        AccountEntity account = accountRepository.findById(toUserId).orElseThrow(()->new UsernameNotFoundException("Usuario no encontrado"));
-        account.setFollowers(account.getFollowers() - 1);
-        accountRepository.save(account);
+        accountRepository.decrementFollowers(toUserId);
+    }
+
+    /**
+     * Recalcula en lotes los contadores de seguidores/seguidos desde FOLLOWS y corrige los que difieren.
+     * La corrección es condicional al valor leído, para no pisar un follow/unfollow concurrente
+     */
+    @Override
+    @Scheduled(cron = "${follows.counters.reconcile-cron:0 0 4 * * *}")
+    public int reconcileFollowCounts() {
+        int repaired = 0;
+        Long lastId = 0L;
+        List<Object[]> counters;
+        do {
+            counters = accountRepository.findFollowCounters(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (counters.isEmpty()) {
+                break;
+            }
+            List<Long> accountIds = counters.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, Long> followers = new HashMap<>();
+            Map<Long, Long> followings = new HashMap<>();
+            followRepository.countFollowersByUserIds(accountIds).forEach(row -> followers.put((Long) row[0], (Long) row[1]));
+            followRepository.countFollowingsByUserIds(accountIds).forEach(row -> followings.put((Long) row[0], (Long) row[1]));
+
+            List<Object[]> drifted = counters.stream()
+                    .filter(row -> !followers.getOrDefault((Long) row[0], 0L).equals(row[1])
+                            || !followings.getOrDefault((Long) row[0], 0L).equals(row[2]))
+                    .toList();
+            if (!drifted.isEmpty()) {
+                Integer updated = transactionTemplate.execute(status -> drifted.stream()
+                        .mapToInt(row -> {
+                            Long id = (Long) row[0];
+                            return accountRepository.updateFollowCounters(id,
+                                    followers.getOrDefault(id, 0L), followings.getOrDefault(id, 0L),
+                                    orZero((Long) row[1]), orZero((Long) row[2]));
+                        })
+                        .sum());
+                repaired += updated != null ? updated : 0;
+            }
+            lastId = accountIds.get(accountIds.size() - 1);
+        } while (counters.size() == RECONCILE_BATCH_SIZE);
+
+        log.info("Reconciliacion de contadores de seguimiento: {} cuentas corregidas", repaired);
+        return repaired;
     }
 
     @Override
@@ -135,8 +188,7 @@ public class AccountService implements IAccountService {
 
     @Override
     public void updateContactInfo(ContactInfoDTO contactInfo) {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        AuthenticatedUser userEntity = AuthenticatedUser.current();
         AccountEntity account = accountRepository.findById(userEntity.getId()).orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
         account.setPhone(contactInfo.getPhone());
         account.setAttentionHours(contactInfo.getAttentionHours());
@@ -145,12 +197,15 @@ public class AccountService implements IAccountService {
 
     @Override
     public ContactInfoDTO getContactInfo() {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        AuthenticatedUser userEntity = AuthenticatedUser.current();
         AccountEntity account = accountRepository.findById(userEntity.getId()).orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
         ContactInfoDTO dto = new ContactInfoDTO();
         dto.setPhone(account.getPhone());
         dto.setAttentionHours(account.getAttentionHours());
         return dto;
     }
+
+    private static Long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
 }
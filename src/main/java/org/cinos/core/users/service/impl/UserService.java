@@ -1,8 +1,11 @@
 package org.cinos.core.users.service.impl;
 
 import org.apache.coyote.BadRequestException;
+import org.cinos.core.auth.model.AuthenticatedUser;
+import org.cinos.core.auth.service.PrincipalCache;
 import org.cinos.core.mail.models.SendEmailRequest;
 import org.cinos.core.mail.service.MailService;
+import org.cinos.core.notifications.service.PremiumSubscriptionIndex;
 import org.cinos.core.users.controller.request.UserCreateRequest;
 import org.cinos.core.users.controller.request.RecommendationsPreferencesRequest;
 import org.cinos.core.users.controller.request.PremiumNotificationPreferencesRequest;
@@ -29,8 +32,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -54,6 +55,8 @@ public class UserService implements IUserService {
     private final MailService mailSender;
     private final PendingVerificationRepository pendingVerificationRepository;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
+    private final PremiumSubscriptionIndex premiumSubscriptionIndex;
 
     @Override
     public List<UserDTO> getUsers() {
@@ -137,28 +140,37 @@ public class UserService implements IUserService {
         return userRepository.findById(id).orElseThrow(()->new UserNotFoundException(USER_NOT_FOUND_MESSSAGE));
     }
 
+    /**
+     * Usuario autenticado como entidad recién cargada por id: el principal es una copia inmutable
+     * compartida entre requests y no debe modificarse
+     */
+    @Override
+    public UserEntity getLoggedUserEntity() {
+        AuthenticatedUser principal = AuthenticatedUser.current();
+        return userRepository.findById(principal.getId())
+                .orElseThrow(() -> new UsernameNotFoundException(USER_NOT_FOUND_MESSSAGE));
+    }
+
     @Override
     public UserDTO getLoggedUser(){
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        UserEntity userEntity = getLoggedUserEntity();
         return userMapper.toDTO(userEntity);
     }
 
     @Override
     public UserDTO getPremiumNotificationPreferences() {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        UserEntity userEntity = getLoggedUserEntity();
         return userMapper.toDTO(userEntity);
     }
 
     @Override
     public UserDTO updatePremiumNotificationPreferences(PremiumNotificationPreferencesRequest request) {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        UserEntity userEntity = getLoggedUserEntity();
         userEntity.setPremiumNotificationBrand(request.getBrand());
         userEntity.setPremiumNotificationModel(request.getModel());
         userEntity.setPremiumNotificationCondition(request.getCondition());
         userRepository.save(userEntity);
+        premiumSubscriptionIndex.update(userEntity);
         return userMapper.toDTO(userEntity);
     }
 
@@ -230,8 +242,7 @@ public class UserService implements IUserService {
 
     @Override
     public UserDTO updateRecommendationsPreferences(RecommendationsPreferencesRequest request) {
-        UsernamePasswordAuthenticationToken authentication = (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        UserEntity userEntity = (UserEntity) authentication.getPrincipal();
+        UserEntity userEntity = getLoggedUserEntity();
         userEntity.setPreferredBrand(request.preferredBrand());
         userEntity.setWantsUsedCars(request.wantsUsedCars());
         userEntity.setWantsNewCars(request.wantsNewCars());
@@ -271,6 +282,8 @@ public class UserService implements IUserService {
         if (!user.getRoles().contains(Role.PREMIUM)) {
             user.getRoles().add(Role.PREMIUM);
             userRepository.save(user);
+            principalCache.invalidate(user.getUsername());
+            premiumSubscriptionIndex.update(user);
         }
     }
 
@@ -5,6 +5,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
+import org.cinos.core.posts.utils.exceptions.InvalidCursorException;
+import org.cinos.core.posts.utils.exceptions.PublishQueueFullException;
 import org.cinos.core.users.utils.exceptions.EmailExistException;
 import org.cinos.core.users.utils.exceptions.DuplicateUserException;
 import org.springframework.http.HttpStatus;
@@ -15,6 +17,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.Locale;
@@ -124,6 +127,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursorException(HttpServletRequest req, InvalidCursorException e) {
+        ApiError apiError = ApiError.builder()
+                .url(req.getRequestURL().toString())
+                .date(LocalDateTime.now())
+                .method(req.getMethod())
+                .message(e.getMessage())
+                .build();
+        log.warn("InvalidCursorException: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
+    }
+
+    @ExceptionHandler(PublishQueueFullException.class)
+    public ResponseEntity<ApiError> handlePublishQueueFullException(HttpServletRequest req, PublishQueueFullException e) {
+        ApiError apiError = ApiError.builder()
+                .url(req.getRequestURL().toString())
+                .date(LocalDateTime.now())
+                .method(req.getMethod())
+                .message(e.getMessage())
+                .build();
+        log.warn("PublishQueueFullException: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "60").body(apiError);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatusException(HttpServletRequest req, ResponseStatusException e) {
+        ApiError apiError = ApiError.builder()
+                .url(req.getRequestURL().toString())
+                .date(LocalDateTime.now())
+                .method(req.getMethod())
+                .message(e.getReason())
+                .build();
+        log.warn("ResponseStatusException: {}", e.getMessage());
+        return ResponseEntity.status(e.getStatusCode()).body(apiError);
+    }
+
     @ExceptionHandler(DuplicateUserException.class)
     public ResponseEntity<ApiError> handleDuplicateUserException(HttpServletRequest req, DuplicateUserException e) {
         ApiError apiError = ApiError.builder()
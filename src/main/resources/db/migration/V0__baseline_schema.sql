@@ -0,0 +1,261 @@
+-- Esquema base previo a las migraciones V1+, tal como lo generaba ddl-auto.
+-- Solo se ejecuta sobre una base vacía: en bases existentes Flyway registra el baseline en la
+-- versión 0 (spring.flyway.baseline-on-migrate) y la omite. Las tablas usan IF NOT EXISTS por las dudas.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                                     BIGINT       NOT NULL AUTO_INCREMENT,
+    name                                   VARCHAR(255),
+    lastname                               VARCHAR(255),
+    username                               VARCHAR(255),
+    email                                  VARCHAR(255),
+    password                               VARCHAR(255),
+    phone                                  VARCHAR(255),
+    address                                VARCHAR(255),
+    active                                 BIT,
+    created_at                             DATETIME(6),
+    verification_code                      VARCHAR(255),
+    verification_code_expiry               DATETIME(6),
+    stripe_customer_id                     VARCHAR(255),
+    stripe_subscription_id                 VARCHAR(255),
+    has_seen_recommendations_modal         BIT,
+    preferred_brand                        VARCHAR(255),
+    wants_used_cars                        BIT,
+    wants_new_cars                         BIT,
+    use_location_for_recommendations       BIT,
+    premium_notification_brand             VARCHAR(255),
+    premium_notification_model             VARCHAR(255),
+    premium_notification_condition         VARCHAR(255),
+    technical_verification_credits         INT,
+    technical_verification_reports_credits INT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_stripe_customer_id UNIQUE (stripe_customer_id),
+    CONSTRAINT uk_users_stripe_subscription_id UNIQUE (stripe_subscription_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL,
+    roles   ENUM('ADMIN','USER','PREMIUM'),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS accounts (
+    user_id         BIGINT       NOT NULL,
+    points          INT,
+    avatar_img      VARCHAR(255),
+    followers       BIGINT,
+    followings      BIGINT,
+    posts           INT,
+    phone           VARCHAR(255),
+    attention_hours VARCHAR(255),
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS pending_verification (
+    id     BIGINT       NOT NULL AUTO_INCREMENT,
+    email  VARCHAR(255),
+    code   VARCHAR(255),
+    expiry DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS makes (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS models (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(255),
+    make_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_models_make FOREIGN KEY (make_id) REFERENCES makes (id)
+);
+
+CREATE TABLE IF NOT EXISTS posts (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    make                 VARCHAR(255),
+    model                VARCHAR(255),
+    year                 VARCHAR(255),
+    is_used              BIT,
+    price                DOUBLE,
+    currency_symbol      ENUM('ARS','USD'),
+    kilometers           VARCHAR(255),
+    fuel                 VARCHAR(255),
+    transmission         VARCHAR(255),
+    publication_date     DATETIME(6),
+    account_id           BIGINT       NOT NULL,
+    active               BIT,
+    documentation_status ENUM('NOT_PROVIDED','PENDING','APPROVED','REJECTED'),
+    is_verified          BIT,
+    hp                   INT,
+    motor                VARCHAR(255),
+    traccion             VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_posts_account FOREIGN KEY (account_id) REFERENCES accounts (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS post_image_entity (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    url     VARCHAR(255),
+    post_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_post_image_entity_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE IF NOT EXISTS post_location_entity (
+    id      BIGINT         NOT NULL AUTO_INCREMENT,
+    address VARCHAR(255),
+    lat     DECIMAL(38, 2),
+    lng     DECIMAL(38, 2),
+    post_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_post_location_entity_post UNIQUE (post_id),
+    CONSTRAINT fk_post_location_entity_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE IF NOT EXISTS account_saved_posts (
+    post_id    BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    CONSTRAINT fk_account_saved_posts_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_account_saved_posts_account FOREIGN KEY (account_id) REFERENCES accounts (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_technical_verification_access (
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    CONSTRAINT fk_user_tv_access_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_tv_access_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    post_id      BIGINT,
+    user_id      BIGINT,
+    content      VARCHAR(255),
+    comment_date DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS technical_verifications (
+    id                                    BIGINT      NOT NULL AUTO_INCREMENT,
+    post_id                               BIGINT,
+    sent_to_verification_date             DATETIME(6),
+    verification_accepted_date            DATETIME(6),
+    verification_appointment_date         DATETIME(6),
+    verification_made_date                DATETIME(6),
+    upholstery_and_panels_condition       DOUBLE,
+    ac_and_heater_functionality           DOUBLE,
+    window_mechanisms_functionality       DOUBLE,
+    central_locking_functionality         DOUBLE,
+    seat_belts_and_anchors_condition      DOUBLE,
+    multimedia_system_functionality       DOUBLE,
+    general_engine_condition              DOUBLE,
+    fluid_leaks                           DOUBLE,
+    belts_and_hoses_condition             DOUBLE,
+    engine_start_performance              DOUBLE,
+    oil_condition                         DOUBLE,
+    cooling_system_condition              DOUBLE,
+    visual_damage_inspection              DOUBLE,
+    rust_presence                         DOUBLE,
+    door_and_hood_alignment               DOUBLE,
+    bumper_condition                      DOUBLE,
+    chassis_leaks                         DOUBLE,
+    shock_absorbers                       DOUBLE,
+    bushings_and_ball_joints              DOUBLE,
+    stabilizer_bars                       DOUBLE,
+    steering_play                         DOUBLE,
+    noise_while_turning                   DOUBLE,
+    brake_pads_and_discs                  DOUBLE,
+    handbrake_functionality               DOUBLE,
+    brake_pedal_pressure                  DOUBLE,
+    brake_response                        DOUBLE,
+    brake_fluid_level                     DOUBLE,
+    even_wear                             DOUBLE,
+    spare_tire_condition                  DOUBLE,
+    tire_pressure                         DOUBLE,
+    tire_manufacture_date                 DOUBLE,
+    rim_condition                         DOUBLE,
+    tone_differences                      DOUBLE,
+    putty_or_touch_ups                    DOUBLE,
+    dents_or_hits                         DOUBLE,
+    exterior_plastics                     DOUBLE,
+    glass_condition                       DOUBLE,
+    check_engine_light                    DOUBLE,
+    abs_light                             DOUBLE,
+    battery_light                         DOUBLE,
+    airbag_light                          DOUBLE,
+    speedometer_and_tachometer            DOUBLE,
+    dashboard_lighting                    DOUBLE,
+    status                                ENUM('NOT_STARTED','SENT','PENDING','APPROVED','REJECTED'),
+    is_approved                           BIT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_technical_verifications_post UNIQUE (post_id),
+    CONSTRAINT fk_technical_verifications_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE IF NOT EXISTS follows (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    from_user_id BIGINT,
+    to_user_id   BIGINT,
+    created_at   DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS conversations (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    last_updated DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS conversations_participants (
+    conversation_entity_id BIGINT NOT NULL,
+    participants_id        BIGINT NOT NULL,
+    PRIMARY KEY (conversation_entity_id, participants_id),
+    CONSTRAINT fk_conversations_participants_conversation FOREIGN KEY (conversation_entity_id) REFERENCES conversations (id),
+    CONSTRAINT fk_conversations_participants_account FOREIGN KEY (participants_id) REFERENCES accounts (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS messages (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    conversation_id BIGINT       NOT NULL,
+    sender_id       BIGINT       NOT NULL,
+    recipient_id    BIGINT       NOT NULL,
+    content         VARCHAR(255),
+    timestamp       DATETIME(6),
+    seen            BIT,
+    status          ENUM('SENT','DELIVERED','SEEN'),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES accounts (user_id),
+    CONSTRAINT fk_messages_recipient FOREIGN KEY (recipient_id) REFERENCES accounts (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS push_tokens (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT       NOT NULL,
+    token        VARCHAR(255) NOT NULL,
+    device_type  ENUM('ANDROID','IOS','WEB'),
+    is_active    BIT          NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    last_used_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_push_tokens_token UNIQUE (token),
+    CONSTRAINT fk_push_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS payments_details (
+    id                VARCHAR(255) NOT NULL,
+    status            VARCHAR(255),
+    customer_id       VARCHAR(255),
+    customer_email    VARCHAR(255),
+    subscription_id   VARCHAR(255),
+    payment_method_id VARCHAR(255),
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    price             DOUBLE,
+    PRIMARY KEY (id)
+);
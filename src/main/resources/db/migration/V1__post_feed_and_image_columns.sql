@@ -0,0 +1,72 @@
+-- Columnas agregadas por el feed precalculado, el contador de comentarios, la publicación
+-- asíncrona y las variantes de imagen. Idempotente: en bases creadas por ddl-auto ya existen.
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE posts ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND column_name = 'comment_count');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE posts ADD COLUMN base_score DOUBLE', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND column_name = 'base_score');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE posts ADD COLUMN score_updated_at DATETIME(6)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND column_name = 'score_updated_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE posts ADD COLUMN publication_status ENUM(''PROCESSING'',''PUBLISHED'',''FAILED'')', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND column_name = 'publication_status');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN medium_url VARCHAR(255)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'medium_url');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN thumbnail_url VARCHAR(255)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'thumbnail_url');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN small_url VARCHAR(255)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'small_url');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN width INT', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'width');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN height INT', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'height');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN position INT', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'position');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,74 @@
+-- Índices compuestos que necesitan las consultas de los repositorios.
+-- Cada índice se crea solo si no existe, para aplicarse sobre bases creadas por ddl-auto.
+
+-- FOLLOWS: una sola fila por par (seguidor, seguido); se conservan las más antiguas
+DELETE f1 FROM follows f1
+    JOIN follows f2 ON f1.from_user_id = f2.from_user_id AND f1.to_user_id = f2.to_user_id AND f1.id > f2.id;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE UNIQUE INDEX uk_follows_from_to ON follows (from_user_id, to_user_id)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'follows' AND index_name = 'uk_follows_from_to');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_follows_to_from ON follows (to_user_id, from_user_id)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'follows' AND index_name = 'idx_follows_to_from');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Reemplazado por la restricción única
+SET @ddl = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_follows_from_to ON follows', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'follows' AND index_name = 'idx_follows_from_to');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- MESSAGES: historial por conversación y no leídos por destinatario
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_messages_conversation_timestamp ON messages (conversation_id, timestamp)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'messages' AND index_name = 'idx_messages_conversation_timestamp');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_messages_recipient_seen ON messages (recipient_id, seen)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'messages' AND index_name = 'idx_messages_recipient_seen');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- CONVERSATIONS: conversaciones de un participante
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_conversations_participants_account ON conversations_participants (participants_id, conversation_entity_id)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'conversations_participants' AND index_name = 'idx_conversations_participants_account');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- PUSH_TOKENS: tokens activos por usuario
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_push_tokens_user_active ON push_tokens (user_id, is_active)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'push_tokens' AND index_name = 'idx_push_tokens_user_active');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- POSTS: listados de activos por fecha de publicación y ranking precalculado
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_posts_active_publication_date ON posts (active, publication_date)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND index_name = 'idx_posts_active_publication_date');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_posts_active_base_score ON posts (active, base_score)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND index_name = 'idx_posts_active_base_score');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
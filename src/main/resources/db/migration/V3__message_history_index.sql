@@ -0,0 +1,7 @@
+-- MESSAGES: historial paginado por id dentro de la conversación
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_messages_conversation_id ON messages (conversation_id, id)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'messages' AND index_name = 'idx_messages_conversation_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,15 @@
+-- Bandeja de entrada desnormalizada; las filas de conversaciones existentes las completa
+-- ConversationInboxService.backfillInbox al arrancar
+CREATE TABLE IF NOT EXISTS conversation_inbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    conversation_id BIGINT       NOT NULL,
+    account_id      BIGINT       NOT NULL,
+    counterpart_id  BIGINT       NOT NULL,
+    last_message    VARCHAR(255),
+    last_sender_id  BIGINT,
+    last_updated    DATETIME(6),
+    unread_count    BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_conversation_inbox_conversation_account UNIQUE (conversation_id, account_id),
+    INDEX idx_conversation_inbox_account_updated (account_id, last_updated)
+);
@@ -0,0 +1,7 @@
+-- PUSH_TOKENS: limpieza por lotes de tokens sin uso reciente
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_push_tokens_last_used ON push_tokens (last_used_at)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'push_tokens' AND index_name = 'idx_push_tokens_last_used');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,13 @@
+-- Outbox de notificaciones: se escribe junto con el post y la vacía NotificationOutboxService
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    type            VARCHAR(255) NOT NULL,
+    reference_id    BIGINT       NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INT          NOT NULL,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_notification_outbox_status_next (status, next_attempt_at)
+);
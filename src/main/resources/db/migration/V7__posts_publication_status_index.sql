@@ -0,0 +1,7 @@
+-- POSTS: barrido de publicaciones asíncronas que quedaron en PROCESSING
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_posts_publication_status_date ON posts (publication_status, publication_date)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'posts' AND index_name = 'idx_posts_publication_status_date');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
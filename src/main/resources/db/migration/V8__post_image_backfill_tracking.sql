@@ -0,0 +1,14 @@
+-- POST_IMAGE_ENTITY: intentos y reserva del backfill de variantes (varios nodos, sin reintentos infinitos)
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN variant_attempts INT NOT NULL DEFAULT 0', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'variant_attempts');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE post_image_entity ADD COLUMN variant_claimed_until DATETIME(6)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'post_image_entity' AND column_name = 'variant_claimed_until');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
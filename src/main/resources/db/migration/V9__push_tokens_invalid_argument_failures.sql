@@ -0,0 +1,14 @@
+-- PUSH_TOKENS: rechazos INVALID_ARGUMENT ambiguos de FCM, para desactivar el token si se repiten
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE push_tokens ADD COLUMN invalid_argument_failures INT NOT NULL DEFAULT 0', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'push_tokens' AND column_name = 'invalid_argument_failures');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE push_tokens ADD COLUMN last_invalid_argument_at DATETIME(6)', 'SELECT 1')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'push_tokens' AND column_name = 'last_invalid_argument_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
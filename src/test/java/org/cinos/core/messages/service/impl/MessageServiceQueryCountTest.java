@@ -0,0 +1,131 @@
+package org.cinos.core.messages.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.cinos.core.messages.dto.ConversationDTO;
+import org.cinos.core.messages.entity.ConversationEntity;
+import org.cinos.core.messages.entity.MessageEntity;
+import org.cinos.core.messages.model.MessageStatus;
+import org.cinos.core.messages.repository.MessageRepository;
+import org.cinos.core.messages.service.IConversationService;
+import org.cinos.core.posts.service.impl.StorageService;
+import org.cinos.core.testsupport.TestFixtures;
+import org.cinos.core.users.service.IAccountService;
+import org.cinos.core.users.service.impl.AccountService;
+import org.cinos.core.users.utils.exceptions.UserNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara las sentencias SQL por mensaje enviado entre el camino actual de sendMessage y el anterior,
+ * reproducido con los mismos métodos de servicio que usaba: conversación con participantes, cuentas
+ * completas y save de la conversación. Se mide el primer mensaje (crea la conversación) y uno en una
+ * conversación existente.
+ */
+@DataJpaTest
+@Import({MessageService.class, ConversationService.class, ConversationInboxService.class, AccountService.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MessageServiceQueryCountTest {
+
+    private static final int MAX_STATEMENTS_PER_MESSAGE = 5;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+    @MockBean
+    private StorageService storageService;
+    @MockBean
+    private ChatDeliveryService chatDeliveryService;
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private IConversationService conversationService;
+    @Autowired
+    private ConversationInboxService conversationInboxService;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sendMessageRunsFewerStatementsThanThePreviousPath() throws Exception {
+        Long seller = persistAccount("vendedor");
+        Long buyer = persistAccount("comprador");
+        Long previousSeller = persistAccount("vendedor2");
+        Long previousBuyer = persistAccount("comprador2");
+        entityManager.flush();
+        entityManager.clear();
+
+        long creating = statementsToSend(() -> messageService.sendMessage(buyer, seller, "Hola, ¿sigue disponible?"));
+        long existing = statementsToSend(() -> messageService.sendMessage(buyer, seller, "¿Acepta permuta?"));
+        long previousCreating = statementsToSend(() -> sendWithPreviousPath(previousBuyer, previousSeller, "Hola, ¿sigue disponible?"));
+        long previousExisting = statementsToSend(() -> sendWithPreviousPath(previousBuyer, previousSeller, "¿Acepta permuta?"));
+
+        assertTrue(existing <= MAX_STATEMENTS_PER_MESSAGE, "Sentencias con conversación existente: " + existing);
+        assertTrue(existing < previousExisting,
+                "Conversación existente: " + existing + " sentencias contra " + previousExisting + " del camino anterior");
+        assertTrue(creating <= previousCreating,
+                "Primer mensaje: " + creating + " sentencias contra " + previousCreating + " del camino anterior");
+        assertEquals(2L, entityManager.createQuery(
+                "SELECT i.unreadCount FROM ConversationInboxEntity i WHERE i.accountId = :id", Long.class)
+                .setParameter("id", seller)
+                .getSingleResult());
+    }
+
+    /**
+     * Camino de sendMessage previo a resolver la conversación por id y asociar cuentas por referencia
+     */
+    private void sendWithPreviousPath(Long senderId, Long recipientId, String content) throws UserNotFoundException {
+        ConversationDTO conversation = conversationService.getOrCreateConversation(senderId, recipientId);
+        ConversationEntity conversationEntity = conversationService.getEntityById(conversation.id());
+        MessageEntity saved = messageRepository.save(MessageEntity.builder()
+                .conversation(conversationEntity)
+                .sender(accountService.getAccountEntityById(senderId))
+                .recipient(accountService.getAccountEntityById(recipientId))
+                .content(content)
+                .status(MessageStatus.SENT)
+                .seen(false)
+                .timestamp(LocalDateTime.now())
+                .build());
+        accountService.getAccountEntityById(recipientId).getUser().getUsername();
+        conversationEntity.setLastUpdated(LocalDateTime.now());
+        conversationService.save(conversationEntity);
+        conversationInboxService.recordMessage(conversationEntity.getId(), senderId, recipientId, content, saved.getTimestamp());
+    }
+
+    private long statementsToSend(Send send) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        send.run();
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface Send {
+        void run() throws Exception;
+    }
+
+    private Long persistAccount(String username) {
+        return TestFixtures.persistAccount(entityManager, username).getId();
+    }
+}
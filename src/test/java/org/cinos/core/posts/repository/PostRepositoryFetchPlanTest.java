@@ -0,0 +1,86 @@
+package org.cinos.core.posts.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.entity.PostImageEntity;
+import org.cinos.core.posts.dto.mapper.PostMapper;
+import org.cinos.core.posts.dto.mapper.PostMapperImpl;
+import org.cinos.core.users.entity.AccountEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.cinos.core.testsupport.TestFixtures.newPost;
+import static org.cinos.core.testsupport.TestFixtures.persistAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que mapear una página de posts a DTO ejecute una cantidad fija de sentencias,
+ * sin importar el tamaño de la página (sin N+1 sobre cuenta, usuario, imágenes, ubicación y verificación).
+ */
+@DataJpaTest
+@Import(PostMapperImpl.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class PostRepositoryFetchPlanTest {
+
+    private static final int MAX_STATEMENTS_PER_PAGE = 5;
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostMapper postMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            AccountEntity account = persistAccount(entityManager, "user" + i);
+            PostEntity post = newPost(account, LocalDateTime.now().minusHours(i));
+            for (int j = 0; j < 3; j++) {
+                post.getImages().add(PostImageEntity.builder().url("https://img/" + i + "/" + j).post(post).build());
+            }
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void mappingAPageRunsAConstantNumberOfStatements() {
+        long smallPage = statementsToMapPage(5);
+        long fullPage = statementsToMapPage(20);
+
+        assertEquals(smallPage, fullPage);
+        assertTrue(fullPage <= MAX_STATEMENTS_PER_PAGE, "Sentencias ejecutadas: " + fullPage);
+    }
+
+    private long statementsToMapPage(int size) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Specification<PostEntity> activePosts = (root, query, cb) -> cb.isTrue(root.get("active"));
+        Page<PostEntity> page = postRepository.findAll(activePosts, PageRequest.of(0, size));
+        page.getContent().forEach(postMapper::toDTO);
+
+        assertEquals(size, page.getNumberOfElements());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,156 @@
+package org.cinos.core.posts.service.impl;
+
+import net.coobird.thumbnailator.Thumbnails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ejecuta el pipeline real de procesamiento (decodificación, variantes en cascada, codificación y subida)
+ * y compara cada variante subida contra la misma variante redimensionada directamente desde el original:
+ * mismas dimensiones y diferencia visual despreciable (PSNR alto).
+ */
+class ImageProcessingServiceTest {
+
+    private static final double MIN_PSNR_DB = 30.0;
+
+    private final Map<String, byte[]> uploads = new ConcurrentHashMap<>();
+    private ImageProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.uploadBytes(any(), anyString(), eq("image/jpeg"))).thenAnswer(invocation -> {
+            String fileName = invocation.getArgument(1);
+            uploads.put(fileName, invocation.getArgument(0));
+            return "https://storage.test/" + fileName;
+        });
+        service = new ImageProcessingService(storageService);
+        ReflectionTestUtils.setField(service, "encodeThreads", 2);
+        ReflectionTestUtils.setField(service, "uploadThreads", 2);
+        service.initExecutors();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdownExecutors();
+    }
+
+    @Test
+    void processedVariantsMatchDirectResizeQuality() throws IOException {
+        BufferedImage source = samplePhoto(3840, 2880);
+        MockMultipartFile file = new MockMultipartFile("images", "auto.png", "image/png", toPng(source));
+
+        ImageProcessingService.ProcessedImage processed = service.processImage(file);
+
+        assertEquals(3840, processed.info().getWidth());
+        assertEquals(2880, processed.info().getHeight());
+        assertEquals(ImageProcessingService.VARIANTS.size(), uploads.size());
+        for (ImageProcessingService.Variant variant : ImageProcessingService.VARIANTS) {
+            String name = variant.name();
+            String url = processed.urls().get(name);
+            assertNotNull(url, name);
+            byte[] uploaded = uploads.get(url.substring(url.lastIndexOf('/') + 1));
+            assertNotNull(uploaded, name);
+            BufferedImage actual = ImageIO.read(new ByteArrayInputStream(uploaded));
+
+            BufferedImage direct = ImageProcessingService.resizeImageIfNeeded(source, variant.maxWidth(), variant.maxHeight());
+            BufferedImage expected = ImageIO.read(new ByteArrayInputStream(toJpeg(direct, variant.quality())));
+
+            assertEquals(expected.getWidth(), actual.getWidth(), name);
+            assertEquals(expected.getHeight(), actual.getHeight(), name);
+            if ("original".equals(name)) {
+                assertEquals(actual.getWidth(), processed.width());
+                assertEquals(actual.getHeight(), processed.height());
+            }
+            double psnr = psnr(expected, actual);
+            assertTrue(psnr >= MIN_PSNR_DB, name + ": " + psnr + " dB");
+        }
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Misma codificación que aplica el servicio a cada variante
+     */
+    private static byte[] toJpeg(BufferedImage image, float quality) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Thumbnails.of(image)
+                .scale(1.0)
+                .outputQuality(quality)
+                .outputFormat("JPEG")
+                .toOutputStream(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Imagen sintética con degradés y bordes nítidos, similar en contenido a una foto de un auto
+     */
+    private static BufferedImage samplePhoto(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new GradientPaint(0, 0, new Color(90, 140, 200), 0, height / 2f, new Color(220, 230, 240)));
+        g.fillRect(0, 0, width, height / 2);
+        g.setPaint(new GradientPaint(0, height / 2f, new Color(80, 80, 80), width, height, new Color(150, 140, 120)));
+        g.fillRect(0, height / 2, width, height / 2);
+        g.setColor(new Color(180, 20, 30));
+        g.fillRoundRect(width / 5, height / 3, width * 3 / 5, height / 4, 200, 200);
+        g.setColor(Color.DARK_GRAY);
+        g.fillOval(width / 4, height / 2, height / 6, height / 6);
+        g.fillOval(width * 3 / 5, height / 2, height / 6, height / 6);
+        g.setColor(Color.WHITE);
+        g.setStroke(new BasicStroke(12));
+        for (int x = 0; x < width; x += 240) {
+            g.drawLine(x, height * 7 / 8, x + 120, height * 7 / 8);
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static double psnr(BufferedImage expected, BufferedImage actual) {
+        double squaredError = 0;
+        int width = expected.getWidth();
+        int height = expected.getHeight();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = expected.getRGB(x, y);
+                int b = actual.getRGB(x, y);
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    int diff = ((a >> shift) & 0xFF) - ((b >> shift) & 0xFF);
+                    squaredError += diff * diff;
+                }
+            }
+        }
+        double mse = squaredError / (width * (double) height * 3);
+        return mse == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(255 * 255 / mse);
+    }
+}
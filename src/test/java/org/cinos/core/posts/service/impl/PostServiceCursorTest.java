@@ -0,0 +1,196 @@
+package org.cinos.core.posts.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.cinos.core.follows.service.IFollowService;
+import org.cinos.core.mail.service.MailService;
+import org.cinos.core.notifications.service.NotificationOutboxService;
+import org.cinos.core.posts.dto.CursorPageDTO;
+import org.cinos.core.posts.dto.PostDTO;
+import org.cinos.core.posts.dto.PostFeedDTO;
+import org.cinos.core.posts.dto.PostFilterDTO;
+import org.cinos.core.posts.dto.mapper.PostMapperImpl;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.models.PublicationStatus;
+import org.cinos.core.posts.service.IMakeService;
+import org.cinos.core.posts.service.IModelService;
+import org.cinos.core.posts.utils.PostCursor;
+import org.cinos.core.posts.utils.exceptions.InvalidCursorException;
+import org.cinos.core.users.entity.AccountEntity;
+import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.users.service.impl.AccountService;
+import org.cinos.core.users.service.impl.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.cinos.core.testsupport.TestFixtures.newPost;
+import static org.cinos.core.testsupport.TestFixtures.persistAccount;
+import static org.cinos.core.testsupport.TestFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recorre los listados por cursor de punta a punta: cada publicación aparece una sola vez,
+ * incluidas las que empatan en el valor de orden y las filas previas sin fecha de publicación,
+ * y nunca las que siguen en proceso o fallaron al publicarse.
+ */
+@DataJpaTest
+@Import({PostService.class, PostScoreService.class, PostMapperImpl.class, SimpleMeterRegistry.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class PostServiceCursorTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @MockBean
+    private IFollowService followService;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private AccountService accountService;
+    @MockBean
+    private StorageService storageService;
+    @MockBean
+    private IMakeService makeService;
+    @MockBean
+    private IModelService modelService;
+    @MockBean
+    private MailService mailService;
+    @MockBean
+    private NotificationOutboxService notificationOutboxService;
+    @MockBean
+    private ImageProcessingService imageProcessingService;
+    @MockBean
+    private PostPublishWorker postPublishWorker;
+
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long viewerId;
+    private Set<Long> authorPostIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserEntity viewer = persistUser(entityManager, "lector");
+        viewerId = persistAccount(entityManager, viewer).getId();
+        AccountEntity author = persistAccount(entityManager, "autor");
+
+        // Fechas y scores repetidos para forzar el desempate por id, y dos filas sin fecha
+        LocalDateTime sameDate = LocalDateTime.of(2024, 3, 1, 12, 0);
+        authorPostIds = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            LocalDateTime publicationDate = i < 2 ? null : sameDate.minusDays(i / 3);
+            authorPostIds.add(persistPost(author, publicationDate, (double) (i / 4)).getId());
+        }
+        // Publicaciones asíncronas en proceso o fallidas: inactivas, no deben aparecer en ningún listado
+        hidePost(persistPost(author, sameDate.plusDays(1), 5.0), PublicationStatus.PROCESSING);
+        hidePost(persistPost(author, sameDate, 1.0), PublicationStatus.FAILED);
+        entityManager.flush();
+        entityManager.clear();
+
+        when(followService.getFollowingIds(viewerId)).thenReturn(List.of(author.getId()));
+        when(userService.getByIdEntity(viewerId)).thenReturn(viewer);
+    }
+
+    @Test
+    void followingsCursorVisitsEveryPostOnceIncludingUndatedRows() throws Exception {
+        List<Long> visited = walk(cursor -> postService.getFollowingsPostsCursor(viewerId, cursor, PAGE_SIZE));
+
+        assertEquals(authorPostIds.size(), visited.size());
+        assertEquals(authorPostIds, new HashSet<>(visited));
+    }
+
+    @Test
+    void feedCursorVisitsEveryScoredPostOnce() throws Exception {
+        List<Long> visited = walk(cursor -> postService.getFeedPostsCursor(viewerId, cursor, PAGE_SIZE, null, null));
+
+        assertEquals(authorPostIds.size(), visited.size());
+        assertEquals(authorPostIds, new HashSet<>(visited));
+    }
+
+    @Test
+    void filterCursorUsesTheDefaultSizeWhenMissing() {
+        CursorPageDTO<?> page = postService.getPostsFilterCursor(filter(null, null));
+
+        assertEquals(authorPostIds.size(), page.content().size());
+        assertEquals(Boolean.FALSE, page.hasNext());
+    }
+
+    @Test
+    void offsetListingsSkipPostsStillProcessingOrFailed() throws Exception {
+        Set<Long> followings = new HashSet<>();
+        postService.getFollowingsPosts(viewerId, PageRequest.of(0, 50)).forEach(post -> followings.add(post.id()));
+        Set<Long> filtered = new HashSet<>();
+        postService.getPostsFilter(
+                new PostFilterDTO(null, null, null, null, null, null, null, null, null, null, null, null, 0, 50, null)).forEach(post -> filtered.add(post.id()));
+
+        assertEquals(authorPostIds, followings);
+        assertEquals(authorPostIds, filtered);
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        String badDate = new PostCursor("no-es-fecha", 1L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> postService.getFollowingsPostsCursor(viewerId, badDate, PAGE_SIZE));
+        assertThrows(InvalidCursorException.class, () -> postService.getFeedPostsCursor(viewerId, badDate, PAGE_SIZE, null, null));
+        assertThrows(InvalidCursorException.class, () -> postService.getPostsFilterCursor(filter("???", PAGE_SIZE)));
+    }
+
+    private List<Long> walk(Page fetch) throws Exception {
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<?> page = fetch.get(cursor);
+            assertTrue(page.content().size() <= PAGE_SIZE);
+            page.content().forEach(item -> visited.add(idOf(item)));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return visited;
+    }
+
+    private static Long idOf(Object item) {
+        if (item instanceof PostDTO post) {
+            return post.id();
+        }
+        return ((PostFeedDTO) item).id();
+    }
+
+    private static PostFilterDTO filter(String cursor, Integer size) {
+        return new PostFilterDTO(null, null, null, null, null, null, null, null, null, null, null, null, null, size, cursor);
+    }
+
+    @FunctionalInterface
+    private interface Page {
+        CursorPageDTO<?> get(String cursor) throws Exception;
+    }
+
+    private static void hidePost(PostEntity post, PublicationStatus status) {
+        post.setActive(false);
+        post.setPublicationStatus(status);
+    }
+
+    private PostEntity persistPost(AccountEntity account, LocalDateTime publicationDate, Double baseScore) {
+        PostEntity post = newPost(account, publicationDate);
+        post.setBaseScore(baseScore);
+        entityManager.persist(post);
+        return post;
+    }
+}
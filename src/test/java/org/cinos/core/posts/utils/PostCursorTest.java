@@ -0,0 +1,60 @@
+package org.cinos.core.posts.utils;
+
+import org.cinos.core.posts.utils.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostCursorTest {
+
+    @Test
+    void dateSortKeyRoundTrips() {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 17, 10, 30, 15, 123456000);
+        PostCursor decoded = PostCursor.decode(new PostCursor(date.toString(), 42L).encode());
+
+        assertEquals(date, decoded.sortKeyAsDateTime());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void scoreSortKeyRoundTripsExactly() {
+        double score = 0.1 + 0.2;
+        PostCursor decoded = PostCursor.decode(new PostCursor(String.valueOf(score), 7L).encode());
+
+        assertEquals(score, decoded.sortKeyAsDouble());
+    }
+
+    @Test
+    void missingSortKeyRoundTripsAsNull() {
+        PostCursor decoded = PostCursor.decode(new PostCursor(null, 3L).encode());
+
+        assertNull(decoded.sortKey());
+        assertNull(decoded.sortKeyAsDateTime());
+        assertEquals(3L, decoded.id());
+    }
+
+    @Test
+    void blankCursorIsFirstPage() {
+        assertNull(PostCursor.decode(null));
+        assertNull(PostCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode("no es base64!"));
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode(encode("sin-separador")));
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode(encode("2024-01-01T00:00|abc")));
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode(encode("no-es-fecha|5")).sortKeyAsDateTime());
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode(encode("no-es-numero|5")).sortKeyAsDouble());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
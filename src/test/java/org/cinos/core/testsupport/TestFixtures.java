@@ -0,0 +1,71 @@
+package org.cinos.core.testsupport;
+
+import jakarta.persistence.EntityManager;
+import org.cinos.core.posts.entity.PostEntity;
+import org.cinos.core.posts.entity.PostLocationEntity;
+import org.cinos.core.users.entity.AccountEntity;
+import org.cinos.core.users.entity.UserEntity;
+import org.cinos.core.users.model.Role;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los tests de JPA: usuarios, cuentas y posts mínimos válidos
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static UserEntity persistUser(EntityManager entityManager, String username) {
+        UserEntity user = UserEntity.builder()
+                .name(username)
+                .lastname("Test")
+                .username(username)
+                .email(username + "@cinos.test")
+                .active(true)
+                .roles(new ArrayList<>(List.of(Role.USER)))
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    public static AccountEntity persistAccount(EntityManager entityManager, UserEntity user) {
+        AccountEntity account = AccountEntity.builder().user(user).followers(0L).followings(0L).posts(0).build();
+        entityManager.persist(account);
+        return account;
+    }
+
+    public static AccountEntity persistAccount(EntityManager entityManager, String username) {
+        return persistAccount(entityManager, persistUser(entityManager, username));
+    }
+
+    /**
+     * Post activo con ubicación y sin imágenes, todavía sin persistir para poder completarlo
+     */
+    public static PostEntity newPost(AccountEntity account, LocalDateTime publicationDate) {
+        PostEntity post = PostEntity.builder()
+                .make("Ford")
+                .model("Focus")
+                .year("2020")
+                .isUsed(true)
+                .price(10000.0)
+                .publicationDate(publicationDate)
+                .userAccount(account)
+                .active(true)
+                .isVerified(false)
+                .commentCount(0L)
+                .images(new ArrayList<>())
+                .build();
+        post.setLocation(PostLocationEntity.builder()
+                .address("Calle")
+                .lat(BigDecimal.valueOf(-34.6))
+                .lng(BigDecimal.valueOf(-58.4))
+                .post(post)
+                .build());
+        return post;
+    }
+}